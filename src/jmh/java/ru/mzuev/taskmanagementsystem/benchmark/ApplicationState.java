@@ -0,0 +1,88 @@
+package ru.mzuev.taskmanagementsystem.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.mzuev.taskmanagementsystem.TaskManagementSystemApplication;
+
+/**
+ * Контекст приложения для бенчмарков: тестовый профиль (H2 в памяти, схема из миграций Flyway), веб-сервер на случайном порту.
+ * Перед замером БД заполняется {@link #TASKS} задачами двух пользователей, у каждой задачи один комментарий.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    /**
+     * Количество задач в наборе данных.
+     */
+    public static final int TASKS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private Long authorId;
+    private Long executorId;
+    private long[] taskIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(TaskManagementSystemApplication.class)
+                .profiles("test")
+                .logStartupInfo(false)
+                // Аргументы командной строки переопределяют application-test.properties: вывод и трассировка SQL
+                // искажают замеры времени и выделения памяти
+                .run("--server.port=0", "--spring.jpa.show-sql=false", "--sql.trace.sample-rate=0",
+                        "--logging.level.root=warn");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into users (email, password, role) values ('author@bench.com', 'hash', 'ROLE_ADMIN')");
+        jdbcTemplate.update("insert into users (email, password, role) values ('executor@bench.com', 'hash', 'ROLE_USER')");
+        authorId = jdbcTemplate.queryForObject("select id from users where email = 'author@bench.com'", Long.class);
+        executorId = jdbcTemplate.queryForObject("select id from users where email = 'executor@bench.com'", Long.class);
+        jdbcTemplate.update("insert into tasks (title, description, status, priority, author_id, executor_id) "
+                + "select 'Benchmark task ' || x, 'Description of benchmark task ' || x, 'в работе', 'средний', ?, ? "
+                + "from system_range(1, ?)", authorId, executorId, TASKS);
+        jdbcTemplate.update("insert into comments (content, created_at, task_id, user_id) "
+                + "select 'Comment for task ' || id, current_timestamp, id, executor_id from tasks");
+        // Идентификаторы берутся из последовательности с шагом 50 и идут не подряд
+        taskIds = jdbcTemplate.queryForList("select id from tasks order by id", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * Возвращает бин контекста приложения.
+     *
+     * @param type Тип бина.
+     * @param <T> Тип бина.
+     * @return Бин.
+     */
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public Long getExecutorId() {
+        return executorId;
+    }
+
+    /**
+     * Возвращает идентификатор задачи из набора данных по порядковому номеру.
+     *
+     * @param index Порядковый номер (по модулю количества задач).
+     * @return Идентификатор задачи.
+     */
+    public long taskId(int index) {
+        return taskIds[Math.floorMod(index, taskIds.length)];
+    }
+}
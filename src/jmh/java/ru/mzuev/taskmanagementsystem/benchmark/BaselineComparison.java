@@ -0,0 +1,79 @@
+package ru.mzuev.taskmanagementsystem.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Сравнивает результаты JMH (формат JSON) с базовой линией и завершается с кодом 1, если какой-либо бенчмарк
+ * ухудшился больше допустимого. Для режимов замера времени ухудшением считается рост оценки,
+ * для режима пропускной способности — снижение. Бенчмарки без базовой линии только выводятся.
+ * Аргументы: файл результатов, файл базовой линии, допустимое ухудшение в процентах.
+ * Если файла базовой линии нет, сравнение пропускается; базовая линия получается копированием
+ * файла результатов, снятого на том же окружении, что и проверяемый прогон.
+ */
+public final class BaselineComparison {
+
+    private static final String THROUGHPUT_MODE = "thrpt";
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path resultFile = Path.of(args[0]);
+        Path baselineFile = Path.of(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+        if (!Files.exists(baselineFile)) {
+            System.out.println("Базовая линия " + baselineFile + " не найдена, сравнение пропущено");
+            return;
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(baselineFile.toFile()));
+        Map<String, JsonNode> results = index(objectMapper.readTree(resultFile.toFile()));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : results.entrySet()) {
+            JsonNode result = entry.getValue();
+            double score = result.path("primaryMetric").path("score").asDouble();
+            String unit = result.path("primaryMetric").path("scoreUnit").asText();
+            JsonNode base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf("%-80s %12.3f %s (нет в базовой линии)%n", entry.getKey(), score, unit);
+                continue;
+            }
+            double baseScore = base.path("primaryMetric").path("score").asDouble();
+            double change = (score - baseScore) / baseScore * 100;
+            double degradation = THROUGHPUT_MODE.equals(result.path("mode").asText()) ? -change : change;
+            boolean regression = degradation > tolerance;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-80s %12.3f -> %12.3f %s (%+.1f%%)%s%n", entry.getKey(), baseScore, score, unit, change,
+                    regression ? " УХУДШЕНИЕ" : "");
+        }
+        if (regressions > 0) {
+            System.out.println("Ухудшение более чем на " + tolerance + "% у бенчмарков: " + regressions);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Индексирует результаты по имени бенчмарка, режиму и параметрам.
+     */
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> indexed = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText())
+                    .append(" [").append(result.path("mode").asText()).append(']');
+            result.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+}
@@ -0,0 +1,80 @@
+package ru.mzuev.taskmanagementsystem.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.mzuev.taskmanagementsystem.security.JwtUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выпуск и проверка JWT. Проверка одного и того же токена идет через кеш проверенных токенов,
+ * как у повторных запросов клиента; варианты *Uncached получают новый токен на каждый вызов
+ * и показывают стоимость первой проверки: разбор, проверку подписи и запись в кеш.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        jwtUtil = application.bean(JwtUtil.class);
+        token = jwtUtil.generateToken(application.getAuthorId(), "author@bench.com", "ROLE_ADMIN");
+    }
+
+    @Benchmark
+    public String generateToken(ApplicationState application) {
+        return jwtUtil.generateToken(application.getAuthorId(), "author@bench.com", "ROLE_ADMIN");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenUncached(FreshToken fresh) {
+        return jwtUtil.validateToken(fresh.token);
+    }
+
+    @Benchmark
+    public String extractEmailUncached(FreshToken fresh) {
+        return jwtUtil.extractEmail(fresh.token);
+    }
+
+    /**
+     * Токен, которого еще нет в кеше проверенных токенов: выпускается перед каждым вызовом бенчмарка
+     * с новым email, так как токены одного пользователя, выпущенные в одну секунду, совпадают.
+     * Выпуск в Level.Invocation не входит в замер; его накладные расходы малы по сравнению
+     * с проверкой подписи.
+     */
+    @State(Scope.Thread)
+    public static class FreshToken {
+
+        private JwtUtil jwtUtil;
+        private Long userId;
+        private long sequence;
+        private String token;
+
+        @Setup(Level.Trial)
+        public void setUp(ApplicationState application) {
+            jwtUtil = application.bean(JwtUtil.class);
+            userId = application.getAuthorId();
+        }
+
+        @Setup(Level.Invocation)
+        public void nextToken() {
+            token = jwtUtil.generateToken(userId, "author" + sequence++ + "@bench.com", "ROLE_ADMIN");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ru.mzuev.taskmanagementsystem.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import ru.mzuev.taskmanagementsystem.dto.CommentDTO;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.mapper.CommentMapper;
+import ru.mzuev.taskmanagementsystem.mapper.TaskMapper;
+import ru.mzuev.taskmanagementsystem.model.Comment;
+import ru.mzuev.taskmanagementsystem.model.Task;
+import ru.mzuev.taskmanagementsystem.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование сущностей в DTO и сериализация страницы задач ObjectMapper'ом приложения,
+ * как в ответе GET /api/tasks/by-author.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private TaskMapper taskMapper;
+    private CommentMapper commentMapper;
+    private ObjectMapper objectMapper;
+    private Task task;
+    private Comment comment;
+    private Page<TaskDTO> page;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        taskMapper = application.bean(TaskMapper.class);
+        commentMapper = application.bean(CommentMapper.class);
+        objectMapper = application.bean(ObjectMapper.class);
+
+        User author = new User();
+        author.setId(1L);
+        User executor = new User();
+        executor.setId(2L);
+        task = new Task();
+        task.setId(1L);
+        task.setTitle("Benchmark task");
+        task.setDescription("Description of benchmark task");
+        task.setStatus("в работе");
+        task.setPriority("средний");
+        task.setAuthor(author);
+        task.setExecutor(executor);
+        task.setVersion(0L);
+        comment = new Comment();
+        comment.setId(1L);
+        comment.setContent("Comment for benchmark task");
+        comment.setCreatedAt(LocalDateTime.now());
+        comment.setTask(task);
+        comment.setUser(executor);
+
+        List<TaskDTO> tasks = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            tasks.add(new TaskDTO(id, "Benchmark task " + id, "Description of benchmark task " + id,
+                    "в работе", "средний", 1L, 2L));
+        }
+        page = new PageImpl<>(tasks, PageRequest.of(0, PAGE_SIZE), ApplicationState.TASKS);
+    }
+
+    @Benchmark
+    public TaskDTO taskToDTO() {
+        return taskMapper.toDTO(task);
+    }
+
+    @Benchmark
+    public CommentDTO commentToDTO() {
+        return commentMapper.toDTO(comment);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.mzuev.taskmanagementsystem.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.mapper.TaskMapper;
+import ru.mzuev.taskmanagementsystem.repository.TaskRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение большой страницы задач автора через управляемые сущности с преобразованием в DTO
+ * и через DTO-проекцию, каждое в своей транзакции.
+ * Объем выделяемой памяти на операцию показывает профилировщик GC (gc.alloc.rate.norm):
+ * -Djmh.args="ProjectionBenchmark -prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private static final int PAGE_SIZE = 500;
+
+    private TransactionTemplate transactionTemplate;
+    private TaskRepository taskRepository;
+    private TaskMapper taskMapper;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        transactionTemplate = application.bean(TransactionTemplate.class);
+        taskRepository = application.bean(TaskRepository.class);
+        taskMapper = application.bean(TaskMapper.class);
+        pageable = PageRequest.of(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<TaskDTO> entities(ApplicationState application) {
+        return transactionTemplate.execute(status ->
+                taskRepository.findByAuthorId(application.getAuthorId(), pageable).map(taskMapper::toDTO));
+    }
+
+    @Benchmark
+    public Page<TaskDTO> projection(ApplicationState application) {
+        return transactionTemplate.execute(status ->
+                taskRepository.findDTOByAuthorId(application.getAuthorId(), pageable));
+    }
+}
@@ -0,0 +1,55 @@
+package ru.mzuev.taskmanagementsystem.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import ru.mzuev.taskmanagementsystem.dto.CursorPage;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.service.TaskService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение задач через TaskService (транзакция, репозиторий, кеш второго уровня) на H2 в памяти.
+ * Задачи по идентификатору читаются по кругу из всего набора данных.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private TaskService taskService;
+
+    /**
+     * Номер следующей задачи, читаемой по идентификатору, отдельный для каждого потока.
+     */
+    @State(Scope.Thread)
+    public static class TaskCursor {
+        private int next;
+    }
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        taskService = application.bean(TaskService.class);
+    }
+
+    @Benchmark
+    public TaskDTO getTaskById(ApplicationState application, TaskCursor cursor) {
+        return taskService.getTaskById(application.taskId(cursor.next++));
+    }
+
+    @Benchmark
+    public Page<TaskDTO> getTasksByAuthorPage(ApplicationState application) {
+        return taskService.getTasksByAuthor(application.getAuthorId(), PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public CursorPage<TaskDTO> getTasksByExecutorCursor(ApplicationState application) {
+        return taskService.getTasksByExecutor(application.getExecutorId(), null, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,34 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Переводит идентификаторы задач с IDENTITY на последовательность tasks_seq.
+ * IDENTITY не позволяет Hibernate группировать INSERT в JDBC-пакеты, а последовательность с шагом 50
+ * выдает идентификаторы блоками (оптимизатор pooled-lo) без обращения к БД на каждую строку.
+ * Миграция написана на Java, так как начальное значение последовательности зависит от уже существующих данных.
+ */
+public class V3__TaskIdSequence extends BaseJavaMigration {
+
+    // Должен совпадать с allocationSize генератора в сущности Task
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long start;
+            try (ResultSet resultSet = statement.executeQuery("select coalesce(max(id), 0) + 1 from tasks")) {
+                resultSet.next();
+                start = resultSet.getLong(1);
+            }
+            statement.execute("create sequence tasks_seq start with " + start + " increment by " + ALLOCATION_SIZE);
+            // Вставки напрямую через SQL (без Hibernate) берут идентификатор из той же последовательности
+            statement.execute("alter table tasks alter column id drop identity");
+            statement.execute("alter table tasks alter column id set default nextval('tasks_seq')");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+/**
+ * Добавляет полнотекстовый поиск по задачам: столбец tasks.search_vector (tsvector) с GIN-индексом.
+ * Вектор собирается из названия (вес A), описания (вес B) и текста комментариев задачи (вес C).
+ * Часть вектора от комментариев хранится отдельно в tasks.comments_vector, поэтому вектор обновляется
+ * без перечитывания комментариев: новый комментарий дописывается к обоим столбцам, а при изменении названия
+ * или описания (Hibernate перезаписывает их при каждом сохранении задачи) вектор собирается заново из полей
+ * задачи и comments_vector. Изменение и удаление комментария пересобирают comments_vector задачи целиком;
+ * приложение таких операций не выполняет. Триггеры на comments не меняют версию задачи, поэтому
+ * не вызывают конфликтов оптимистической блокировки.
+ * Миграция выполняется только на PostgreSQL; на других СУБД (H2 в тестах) поиск работает без индекса,
+ * см. TaskSearchRepository.
+ */
+public class V6__TaskSearchVector extends BaseJavaMigration {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        if (!POSTGRESQL.equals(context.getConnection().getMetaData().getDatabaseProductName())) {
+            return;
+        }
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("alter table tasks add column search_vector tsvector");
+            statement.execute("alter table tasks add column comments_vector tsvector not null default ''");
+            statement.execute("""
+                    create function task_text_vector(title text, description text) returns tsvector
+                    language sql immutable as $$
+                        select setweight(to_tsvector('russian', coalesce(title, '')), 'A')
+                            || setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+                    $$""");
+            statement.execute("""
+                    create function comment_text_vector(content text) returns tsvector
+                    language sql immutable as $$
+                        select setweight(to_tsvector('russian', coalesce(content, '')), 'C')
+                    $$""");
+            statement.execute("""
+                    create function refresh_task_comments_vector(refreshed_task_id bigint) returns void
+                    language plpgsql as $$
+                    begin
+                        update tasks set comments_vector = comment_text_vector(
+                            (select string_agg(c.content, ' ') from comments c where c.task_id = refreshed_task_id))
+                        where id = refreshed_task_id;
+                        update tasks set search_vector = task_text_vector(title, description) || comments_vector
+                        where id = refreshed_task_id;
+                    end
+                    $$""");
+            statement.execute("""
+                    create function tasks_search_vector_trigger() returns trigger
+                    language plpgsql as $$
+                    begin
+                        new.search_vector := task_text_vector(new.title, new.description) || new.comments_vector;
+                        return new;
+                    end
+                    $$""");
+            statement.execute("""
+                    create trigger tasks_search_vector_update
+                        before insert or update of title, description on tasks
+                        for each row execute function tasks_search_vector_trigger()""");
+            statement.execute("""
+                    create function comments_search_vector_trigger() returns trigger
+                    language plpgsql as $$
+                    declare
+                        added tsvector;
+                    begin
+                        if tg_op = 'INSERT' then
+                            added := comment_text_vector(new.content);
+                            update tasks set comments_vector = comments_vector || added,
+                                search_vector = search_vector || added
+                            where id = new.task_id;
+                        elsif tg_op = 'DELETE' then
+                            perform refresh_task_comments_vector(old.task_id);
+                        else
+                            perform refresh_task_comments_vector(old.task_id);
+                            if new.task_id <> old.task_id then
+                                perform refresh_task_comments_vector(new.task_id);
+                            end if;
+                        end if;
+                        return null;
+                    end
+                    $$""");
+            statement.execute("""
+                    create trigger comments_search_vector_update
+                        after insert or update of content, task_id or delete on comments
+                        for each row execute function comments_search_vector_trigger()""");
+            // Векторы заполняются одним проходом по комментариям, индекс строится после заполнения:
+            // так быстрее, чем обновлять его построчно
+            statement.execute("""
+                    update tasks t set comments_vector = comment_text_vector(c.content)
+                    from (select task_id, string_agg(content, ' ') as content from comments group by task_id) c
+                    where t.id = c.task_id""");
+            statement.execute("update tasks set search_vector = task_text_vector(title, description) || comments_vector");
+            statement.execute("create index idx_tasks_search_vector on tasks using gin (search_vector)");
+        }
+    }
+}
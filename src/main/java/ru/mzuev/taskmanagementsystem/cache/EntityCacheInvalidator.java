@@ -0,0 +1,217 @@
+package ru.mzuev.taskmanagementsystem.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.mzuev.taskmanagementsystem.model.Task;
+import ru.mzuev.taskmanagementsystem.model.User;
+import ru.mzuev.taskmanagementsystem.security.PrincipalCache;
+import ru.mzuev.taskmanagementsystem.security.TokenVersionRegistry;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Согласует кеш второго уровня между экземплярами приложения через PostgreSQL LISTEN/NOTIFY.
+ * Сервисы публикуют изменение сущности в текущей транзакции; PostgreSQL доставляет уведомление
+ * только после коммита (и не доставляет при откате), после чего каждый экземпляр удаляет сущность
+ * из своего локального кеша. Изменение пользователя дополнительно сбрасывает кеш запросов и кеш
+ * аутентифицированных пользователей (PrincipalCache), а при смене роли - отзывает токены пользователя
+ * в TokenVersionRegistry. Для прослушивания каждый экземпляр держит одно соединение из пула.
+ * После переподключения кеши очищаются полностью, так как уведомления за время разрыва потеряны.
+ */
+@Slf4j
+@Component
+public class EntityCacheInvalidator implements SmartLifecycle {
+
+    // Идентификатор в уведомлении, означающий все сущности типа
+    private static final String ALL = "*";
+
+    // Сущности, хранящиеся в кеше второго уровня, по имени в уведомлении
+    private static final Map<String, Class<?>> CACHED_ENTITIES = Map.of(
+            Task.class.getSimpleName(), Task.class,
+            User.class.getSimpleName(), User.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final Cache cache;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final boolean enabled;
+    private final String channel;
+    private final long pollTimeoutMs;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    /**
+     * Создает компонент.
+     *
+     * @param jdbcTemplate JdbcTemplate для отправки уведомлений.
+     * @param dataSource Источник соединения для прослушивания канала.
+     * @param entityManagerFactory Фабрика, через которую доступен кеш второго уровня.
+     * @param principalCache Кеш аутентифицированных пользователей.
+     * @param tokenVersionRegistry Реестр версий токенов.
+     * @param enabled Включена ли рассылка уведомлений (требует PostgreSQL).
+     * @param channel Имя канала уведомлений.
+     * @param pollTimeoutMs Время ожидания уведомлений за один опрос.
+     */
+    public EntityCacheInvalidator(JdbcTemplate jdbcTemplate,
+                                  DataSource dataSource,
+                                  EntityManagerFactory entityManagerFactory,
+                                  PrincipalCache principalCache,
+                                  TokenVersionRegistry tokenVersionRegistry,
+                                  @Value("${cache.invalidation.enabled:false}") boolean enabled,
+                                  @Value("${cache.invalidation.channel:entity_cache}") String channel,
+                                  @Value("${cache.invalidation.poll-timeout-ms:1000}") long pollTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        this.principalCache = principalCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    /**
+     * Сообщает другим экземплярам об изменении сущности. Должен вызываться внутри транзакции,
+     * в которой сущность изменена.
+     *
+     * @param entityClass Класс сущности.
+     * @param id Идентификатор сущности.
+     */
+    public void publish(Class<?> entityClass, Object id) {
+        send(entityClass.getSimpleName() + ":" + id);
+    }
+
+    /**
+     * Сообщает другим экземплярам об изменении пользователя, отзывающем его токены (например, о смене роли).
+     * Должен вызываться внутри транзакции, в которой пользователь изменен.
+     *
+     * @param userId Идентификатор пользователя.
+     * @param tokenVersion Версия токенов, начиная с которой токены пользователя действительны.
+     */
+    public void publishUserChange(Long userId, long tokenVersion) {
+        send(User.class.getSimpleName() + ":" + userId + ":" + tokenVersion);
+    }
+
+    /**
+     * Сообщает другим экземплярам об изменении произвольного набора сущностей типа
+     * (например, после массового UPDATE).
+     *
+     * @param entityClass Класс сущности.
+     */
+    public void publishAll(Class<?> entityClass) {
+        send(entityClass.getSimpleName() + ":" + ALL);
+    }
+
+    /**
+     * Применяет полученное уведомление к локальному кешу.
+     *
+     * @param payload Содержимое уведомления в формате "Сущность:идентификатор", "Сущность:*"
+     *                или "User:идентификатор:версия токенов".
+     */
+    public void handle(String payload) {
+        String[] parts = payload.split(":");
+        Class<?> entityClass = parts.length >= 2 ? CACHED_ENTITIES.get(parts[0]) : null;
+        if (entityClass == null || parts.length > (entityClass == User.class ? 3 : 2)) {
+            log.warn("Неизвестное уведомление об изменении кеша: {}", payload);
+            return;
+        }
+        if (ALL.equals(parts[1])) {
+            cache.evictEntityData(entityClass);
+            if (entityClass == User.class) {
+                principalCache.evictAll();
+            }
+        } else {
+            Long id = Long.valueOf(parts[1]);
+            cache.evictEntityData(entityClass, id);
+            if (entityClass == User.class) {
+                // Кеш пользователей ведется по email, а email после регистрации не меняется
+                jdbcTemplate.queryForList("select email from users where id = ?", String.class, id)
+                        .forEach(principalCache::evict);
+                if (parts.length == 3) {
+                    tokenVersionRegistry.revoke(id, Long.parseLong(parts[2]));
+                }
+            }
+        }
+        if (entityClass == User.class) {
+            cache.evictDefaultQueryRegion();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "entity-cache-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void send(String payload) {
+        if (enabled) {
+            jdbcTemplate.query("select pg_notify(?, ?)", resultSet -> null, channel, payload);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("listen " + channel);
+                }
+                // Уведомления, отправленные до подписки, потеряны; отзывы токенов за это время не восстанавливаются
+                cache.evictAllRegions();
+                principalCache.evictAll();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                if (running) {
+                    log.warn("Потеряно соединение для уведомлений об изменении кеша, повтор через {} мс", pollTimeoutMs, ex);
+                    sleep();
+                }
+            }
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollTimeoutMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.mzuev.taskmanagementsystem.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import ru.mzuev.taskmanagementsystem.config.HibernateCacheConfig;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator-эндпоинт /actuator/hibernatecache со статистикой кеша второго уровня и кеша запросов
+ * текущего экземпляра приложения. Требует hibernate.generate_statistics=true.
+ */
+@Component
+@Endpoint(id = "hibernatecache")
+public class HibernateCacheEndpoint {
+
+    private static final List<String> REGIONS = List.of(
+            HibernateCacheConfig.TASK_REGION,
+            HibernateCacheConfig.USER_REGION,
+            HibernateCacheConfig.QUERY_RESULTS_REGION);
+
+    private final Statistics statistics;
+
+    /**
+     * Создает эндпоинт.
+     *
+     * @param entityManagerFactory Фабрика, через которую доступна статистика Hibernate.
+     */
+    public HibernateCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Возвращает статистику по регионам кеша.
+     *
+     * @return Статистика: регион -> показатели.
+     */
+    @ReadOperation
+    public Map<String, Object> cacheStatistics() {
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("hits", regionStatistics.getHitCount());
+            values.put("misses", regionStatistics.getMissCount());
+            values.put("puts", regionStatistics.getPutCount());
+            values.put("size", regionStatistics.getElementCountInMemory());
+            regions.put(region, values);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("regions", regions);
+        return result;
+    }
+}
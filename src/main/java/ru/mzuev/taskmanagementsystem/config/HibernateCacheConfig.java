@@ -0,0 +1,82 @@
+package ru.mzuev.taskmanagementsystem.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Конфигурация кеша второго уровня Hibernate на основе Caffeine (JCache).
+ * Регионы создаются здесь с ограничением размера и времени жизни из application.properties.
+ * Кеш локален для экземпляра приложения; согласованность между экземплярами обеспечивает
+ * {@link ru.mzuev.taskmanagementsystem.cache.EntityCacheInvalidator}, а время жизни записей ограничивает
+ * устаревание, если уведомление об изменении было пропущено.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    // Регионы сущностей (см. аннотации @Cache в Task и User)
+    public static final String TASK_REGION = "task";
+    public static final String USER_REGION = "user";
+
+    // Стандартные регионы кеша запросов Hibernate
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    /**
+     * Создает менеджер кешей для Hibernate. Каждый контекст приложения получает собственный менеджер,
+     * поэтому несколько контекстов в одной JVM (например, в тестах) не разделяют кешированные сущности.
+     *
+     * @param taskMaximumSize Максимальное количество задач в кеше.
+     * @param taskTtl Время жизни задачи в кеше.
+     * @param userMaximumSize Максимальное количество пользователей в кеше.
+     * @param userTtl Время жизни пользователя в кеше.
+     * @param queryMaximumSize Максимальное количество результатов запросов в кеше.
+     * @param queryTtl Время жизни результата запроса в кеше.
+     * @return Менеджер кешей.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${cache.task.maximum-size:10000}") long taskMaximumSize,
+                                              @Value("${cache.task.ttl:60s}") Duration taskTtl,
+                                              @Value("${cache.user.maximum-size:10000}") long userMaximumSize,
+                                              @Value("${cache.user.ttl:5m}") Duration userTtl,
+                                              @Value("${cache.query.maximum-size:10000}") long queryMaximumSize,
+                                              @Value("${cache.query.ttl:60s}") Duration queryTtl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(TASK_REGION, region(taskMaximumSize, taskTtl));
+        cacheManager.createCache(USER_REGION, region(userMaximumSize, userTtl));
+        cacheManager.createCache(QUERY_RESULTS_REGION, region(queryMaximumSize, queryTtl));
+        // Метки времени изменения таблиц не должны вытесняться раньше результатов запросов
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    /**
+     * Передает менеджер кешей в Hibernate.
+     *
+     * @param hibernateCacheManager Менеджер кешей.
+     * @return Настройка свойств Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+}
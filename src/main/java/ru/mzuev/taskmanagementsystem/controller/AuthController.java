@@ -8,6 +8,7 @@ import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
 import ru.mzuev.taskmanagementsystem.dto.UserDTO;
 import ru.mzuev.taskmanagementsystem.exception.InvalidCredentialsException;
 import ru.mzuev.taskmanagementsystem.exception.UserAlreadyExistsException;
+import ru.mzuev.taskmanagementsystem.security.AuthMetrics;
 import ru.mzuev.taskmanagementsystem.security.JwtUtil;
 import ru.mzuev.taskmanagementsystem.service.UserService;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +27,7 @@ public class AuthController {
     private final UserService userService;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final AuthMetrics authMetrics;
 
     /**
      * Регистрирует нового пользователя в системе.
@@ -54,10 +56,13 @@ public class AuthController {
                     new UsernamePasswordAuthenticationToken(authRequest.getEmail(), authRequest.getPassword())
             );
         } catch (BadCredentialsException ex) {
+            authMetrics.loginFailed();
             throw new InvalidCredentialsException();
         }
+        authMetrics.loginSucceeded();
         UserDTO userDTO = userService.findDTOByEmail(authRequest.getEmail());
-        String token = jwtUtil.generateToken(userDTO.getEmail(), userDTO.getRole());
+        userService.syncTokenVersion(userDTO.getId());
+        String token = jwtUtil.generateToken(userDTO.getId(), userDTO.getEmail(), userDTO.getRole());
         return ResponseEntity.ok(new AuthResponse(userDTO.getEmail(), token));
     }
 }
\ No newline at end of file
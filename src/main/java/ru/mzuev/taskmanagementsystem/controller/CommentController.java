@@ -3,11 +3,15 @@ package ru.mzuev.taskmanagementsystem.controller;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.mzuev.taskmanagementsystem.dto.CommentDTO;
 import ru.mzuev.taskmanagementsystem.dto.CommentRequest;
+import ru.mzuev.taskmanagementsystem.dto.CursorPage;
 import ru.mzuev.taskmanagementsystem.exception.AccessDeniedException;
+import ru.mzuev.taskmanagementsystem.exception.InvalidCursorException;
 import ru.mzuev.taskmanagementsystem.exception.TaskNotFoundException;
 import ru.mzuev.taskmanagementsystem.service.CommentService;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +25,7 @@ import lombok.RequiredArgsConstructor;
 public class CommentController {
 
     private final CommentService commentService;
+    private final NdjsonStreamWriter ndjsonStreamWriter;
 
     /**
      * Создает новый комментарий к задаче.
@@ -49,4 +54,35 @@ public class CommentController {
         Page<CommentDTO> comments = commentService.getCommentsByTask(taskId, pageable);
         return ResponseEntity.ok(comments);
     }
-}
\ No newline at end of file
+
+    /**
+     * Возвращает комментарии задачи в порядке создания с курсорной пагинацией (без подсчета общего количества).
+     *
+     * @param taskId Идентификатор задачи.
+     * @param cursor Курсор из предыдущего ответа; для первого среза не указывается.
+     * @param size   Размер среза.
+     * @return Срез комментариев в формате DTO с курсором на следующий срез.
+     * @throws TaskNotFoundException Если задача не найдена.
+     * @throws InvalidCursorException Если курсор некорректен.
+     */
+    @GetMapping("/by-task/{taskId}/cursor")
+    public ResponseEntity<CursorPage<CommentDTO>> getCommentsByTaskCursor(@PathVariable Long taskId,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(defaultValue = "20") int size) {
+        CursorPage<CommentDTO> comments = commentService.getCommentsByTask(taskId, cursor, size);
+        return ResponseEntity.ok(comments);
+    }
+
+    /**
+     * Возвращает все комментарии задачи потоком NDJSON в порядке создания. Ответ не накапливается
+     * в памяти: комментарии читаются из БД срезами и отправляются клиенту по мере чтения.
+     *
+     * @param taskId Идентификатор задачи.
+     * @return Поток комментариев в формате DTO, по одному на строку.
+     * @throws TaskNotFoundException Если задача не найдена.
+     */
+    @GetMapping(value = "/by-task/{taskId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCommentsByTask(@PathVariable Long taskId) {
+        return ndjsonStreamWriter.stream((cursor, size) -> commentService.getCommentsByTask(taskId, cursor, size));
+    }
+}
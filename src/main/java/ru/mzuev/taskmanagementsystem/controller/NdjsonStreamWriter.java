@@ -0,0 +1,70 @@
+package ru.mzuev.taskmanagementsystem.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.mzuev.taskmanagementsystem.dto.CursorPage;
+
+import java.util.function.BiFunction;
+
+/**
+ * Формирует потоковые ответы в формате NDJSON (по одному JSON-объекту на строку) поверх курсорной пагинации.
+ * Данные читаются срезами фиксированного размера, каждый срез — в своей короткой транзакции, и сразу
+ * отправляются клиенту. В памяти держится не больше одного среза, а соединение с БД не занято, пока клиент
+ * читает ответ. Медленный клиент тормозит чтение следующих срезов через блокирующую запись в сокет.
+ */
+@Component
+public class NdjsonStreamWriter {
+
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    /**
+     * Создает компонент.
+     *
+     * @param objectMapper Jackson-маппер приложения.
+     * @param chunkSize Количество элементов, читаемых из БД за один запрос.
+     */
+    public NdjsonStreamWriter(ObjectMapper objectMapper,
+                              @Value("${streaming.chunk-size:500}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Возвращает потоковый ответ. Первый срез читается сразу, в потоке обработки запроса, поэтому ошибки
+     * (например, несуществующий родительский объект) возвращаются обычным ответом с кодом ошибки,
+     * а не обрывом уже начатого потока.
+     *
+     * @param chunks Функция чтения среза по курсору (null для первого среза) и размеру.
+     * @param <T>    Тип элементов.
+     * @return Ответ с содержимым в формате application/x-ndjson.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(BiFunction<String, Integer, CursorPage<T>> chunks) {
+        CursorPage<T> first = chunks.apply(null, chunkSize);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                CursorPage<T> chunk = first;
+                while (true) {
+                    for (T item : chunk.getContent()) {
+                        generator.writeObject(item);
+                        generator.writeRaw('\n');
+                    }
+                    // Отправляем срез клиенту до чтения следующего
+                    generator.flush();
+                    if (!chunk.isHasNext()) {
+                        break;
+                    }
+                    chunk = chunks.apply(chunk.getNextCursor(), chunkSize);
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
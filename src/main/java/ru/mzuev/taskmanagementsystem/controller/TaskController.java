@@ -1,20 +1,43 @@
 package ru.mzuev.taskmanagementsystem.controller;
 
 import jakarta.validation.Valid;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.mzuev.taskmanagementsystem.dto.BulkStatusUpdateRequest;
+import ru.mzuev.taskmanagementsystem.dto.BulkStatusUpdateResult;
+import ru.mzuev.taskmanagementsystem.dto.CursorPage;
 import ru.mzuev.taskmanagementsystem.dto.StatusUpdateRequest;
 import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.dto.TaskImportResult;
+import ru.mzuev.taskmanagementsystem.dto.TaskSearchRequest;
+import ru.mzuev.taskmanagementsystem.event.TaskEventBroadcaster;
 import ru.mzuev.taskmanagementsystem.exception.AccessDeniedException;
+import ru.mzuev.taskmanagementsystem.exception.InvalidCursorException;
 import ru.mzuev.taskmanagementsystem.exception.TaskAlreadyExistsException;
 import ru.mzuev.taskmanagementsystem.exception.TaskNotFoundException;
+import ru.mzuev.taskmanagementsystem.exception.TaskVersionMismatchException;
 import ru.mzuev.taskmanagementsystem.exception.UserNotFoundException;
+import ru.mzuev.taskmanagementsystem.service.TaskExportService;
+import ru.mzuev.taskmanagementsystem.service.TaskImportService;
 import ru.mzuev.taskmanagementsystem.service.TaskService;
+import ru.mzuev.taskmanagementsystem.service.UserService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import lombok.RequiredArgsConstructor;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Контроллер для управления задачами. Обеспечивает создание, обновление, удаление и поиск задач.
  * Доступ к методам регулируется ролями пользователей и проверкой прав.
@@ -24,51 +47,127 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TaskController {
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     private final TaskService taskService;
+    private final TaskImportService taskImportService;
+    private final NdjsonStreamWriter ndjsonStreamWriter;
+    private final TaskExportService taskExportService;
+    private final TaskExportWriter taskExportWriter;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final UserService userService;
 
     /**
      * Создает новую задачу. Доступно только пользователям с ролью ADMIN.
+     * При передаче заголовка Idempotency-Key повторный запрос с тем же ключом и теми же данными вернет
+     * ранее созданную задачу; тот же ключ от другого пользователя или с другими данными отклоняется (422).
      *
      * @param taskDTO DTO задачи с данными для создания.
+     * @param idempotencyKey Ключ идемпотентности (необязательный).
+     * @param authentication Текущий пользователь.
      * @return Созданная задача в формате DTO.
      * @throws TaskAlreadyExistsException Если задача с таким названием уже существует.
      */
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<TaskDTO> createTask(@Valid @RequestBody TaskDTO taskDTO) {
-        TaskDTO createdTaskDTO = taskService.createTask(taskDTO);
-        return ResponseEntity.ok(createdTaskDTO);
+    public ResponseEntity<TaskDTO> createTask(@Valid @RequestBody TaskDTO taskDTO,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                              Authentication authentication) {
+        TaskDTO createdTaskDTO = taskService.createTask(taskDTO, idempotencyKey, authentication.getName());
+        return ResponseEntity.ok().eTag(TaskETags.of(createdTaskDTO.getVersion())).body(createdTaskDTO);
+    }
+
+    /**
+     * Массово создает и обновляет задачи (совпадение по названию). Принимает JSON-массив
+     * или NDJSON (по одному объекту задачи на строку), тело читается потоково.
+     * Доступно только пользователям с ролью ADMIN.
+     *
+     * @param body Тело запроса с задачами.
+     * @return Отчет об импорте с ошибками по строкам.
+     * @throws IOException В случае ошибок чтения тела запроса.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TaskImportResult> importTasks(InputStream body) throws IOException {
+        TaskImportResult result = taskImportService.importTasks(body);
+        return ResponseEntity.ok(result);
     }
 
     /**
      * Обновляет существующую задачу. Доступно только пользователям с ролью ADMIN.
+     * При передаче заголовка If-Match задача обновляется, только если ее текущий ETag совпадает с указанным.
      *
      * @param id      Идентификатор задачи.
      * @param taskDTO DTO с обновленными данными задачи.
-     * @return Обновленная задача в формате DTO.
+     * @param ifMatch ETag задачи, полученный клиентом (необязательный).
+     * @return Обновленная задача в формате DTO с новым ETag.
      * @throws TaskNotFoundException Если задача не найдена.
+     * @throws TaskVersionMismatchException Если задача изменилась после получения ETag (412).
+     * @throws TaskAlreadyExistsException Если задача с новым названием уже существует.
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @RequestBody TaskDTO taskDTO) {
-        TaskDTO updatedTaskDTO = taskService.updateTask(id, taskDTO);
-        return ResponseEntity.ok(updatedTaskDTO);
+    public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @RequestBody TaskDTO taskDTO,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskDTO updatedTaskDTO = taskService.updateTask(id, taskDTO, TaskETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(TaskETags.of(updatedTaskDTO.getVersion())).body(updatedTaskDTO);
     }
 
     /**
      * Обновляет статус задачи. Доступно администраторам или исполнителю задачи.
+     * При передаче заголовка If-Match статус меняется, только если текущий ETag задачи совпадает с указанным.
      *
      * @param id Идентификатор задачи.
      * @param statusUpdateRequest Запрос с новым статусом.
-     * @return Обновленная задача в формате DTO.
+     * @param ifMatch ETag задачи, полученный клиентом (необязательный).
+     * @return Обновленная задача в формате DTO с новым ETag.
      * @throws TaskNotFoundException Если задача не найдена.
+     * @throws TaskVersionMismatchException Если задача изменилась после получения ETag (412).
      * @throws AccessDeniedException Если пользователь не имеет прав на изменение статуса.
      */
     @PutMapping("/{id}/status")
     @PreAuthorize("hasRole('ADMIN') or @taskService.isExecutor(#id, authentication.name)")
-    public ResponseEntity<TaskDTO> updateTaskStatus(@PathVariable Long id, @Valid @RequestBody StatusUpdateRequest statusUpdateRequest) {
-        TaskDTO updatedTaskDTO = taskService.updateTaskStatus(id, statusUpdateRequest.getStatus());
-        return ResponseEntity.ok(updatedTaskDTO);
+    public ResponseEntity<TaskDTO> updateTaskStatus(@PathVariable Long id, @Valid @RequestBody StatusUpdateRequest statusUpdateRequest,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskDTO updatedTaskDTO = taskService.updateTaskStatus(id, statusUpdateRequest.getStatus(), TaskETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(TaskETags.of(updatedTaskDTO.getVersion())).body(updatedTaskDTO);
+    }
+
+    /**
+     * Массово обновляет статус задач, заданных списком идентификаторов или фильтром.
+     * Администратор может менять любые задачи, остальные пользователи — только задачи, где они исполнители.
+     * Фильтр может затрагивать не больше 10000 задач, иначе возвращается 400.
+     *
+     * @param request Запрос со списком задач или фильтром и новым статусом.
+     * @param authentication Текущий пользователь.
+     * @return Итог обновления по каждой задаче (для списка) или количество обновленных задач (для фильтра).
+     */
+    @PutMapping("/bulk/status")
+    public ResponseEntity<BulkStatusUpdateResult> updateTaskStatuses(@Valid @RequestBody BulkStatusUpdateRequest request,
+                                                                     Authentication authentication) {
+        BulkStatusUpdateResult result = taskService.updateTaskStatuses(request, authentication.getName(), isAdmin(authentication));
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Ищет задачи по словам в названии, описании и комментариях, с ранжированием по релевантности
+     * и курсорной (keyset) пагинацией. Слово запроса совпадает и с более длинными словами, начинающимися с него.
+     * Администратор ищет по всем задачам, остальные пользователи — только по задачам, где они исполнители.
+     *
+     * @param request Строка запроса (query) и фильтры по статусу, приоритету и исполнителю.
+     * @param cursor Курсор, полученный с предыдущим срезом (необязательный).
+     * @param size Размер среза (по умолчанию 20, не более 1000).
+     * @param authentication Текущий пользователь.
+     * @return Срез найденных задач.
+     * @throws InvalidCursorException Если курсор некорректен.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<TaskDTO>> searchTasks(@Valid @ModelAttribute TaskSearchRequest request,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "20") int size,
+                                                           Authentication authentication) {
+        CursorPage<TaskDTO> tasks = taskService.searchTasks(request, cursor, size, authentication.getName(), isAdmin(authentication));
+        return ResponseEntity.ok(tasks);
     }
 
     /**
@@ -87,16 +186,26 @@ public class TaskController {
 
     /**
      * Возвращает задачу по идентификатору. Доступно администраторам или исполнителю задачи.
+     * Если ETag из заголовка If-None-Match совпадает с текущим, возвращается 304 без тела:
+     * проверка выполняется запросом одной версии, без загрузки и сериализации задачи.
      *
      * @param id Идентификатор задачи.
-     * @return Задача в формате DTO.
+     * @param ifNoneMatch ETag ранее полученного представления задачи (необязательный).
+     * @return Задача в формате DTO с ETag или 304, если задача не изменилась.
      * @throws TaskNotFoundException Если задача не найдена.
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or @taskService.isExecutor(#id, authentication.name)")
-    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            long version = taskService.getTaskVersion(id);
+            if (TaskETags.matchesNoneMatch(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(TaskETags.of(version)).build();
+            }
+        }
         TaskDTO taskDTO = taskService.getTaskById(id);
-        return ResponseEntity.ok(taskDTO);
+        return ResponseEntity.ok().eTag(TaskETags.of(taskDTO.getVersion())).body(taskDTO);
     }
 
     /**
@@ -128,4 +237,148 @@ public class TaskController {
         Page<TaskDTO> tasks = taskService.getTasksByExecutor(executorId, pageable);
         return ResponseEntity.ok(tasks);
     }
-}
\ No newline at end of file
+
+    /**
+     * Возвращает задачи по автору с курсорной пагинацией (без подсчета общего количества).
+     * Доступно только администраторам.
+     *
+     * @param authorId Идентификатор автора.
+     * @param cursor   Курсор из предыдущего ответа; для первого среза не указывается.
+     * @param size     Размер среза.
+     * @return Срез задач в формате DTO с курсором на следующий срез.
+     * @throws UserNotFoundException Если автор не найден.
+     * @throws InvalidCursorException Если курсор некорректен.
+     */
+    @GetMapping("/by-author/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<TaskDTO>> getTasksByAuthorCursor(@RequestParam Long authorId,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "20") int size) {
+        CursorPage<TaskDTO> tasks = taskService.getTasksByAuthor(authorId, cursor, size);
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * Возвращает задачи по исполнителю с курсорной пагинацией (без подсчета общего количества).
+     * Доступно только администраторам.
+     *
+     * @param executorId Идентификатор исполнителя.
+     * @param cursor     Курсор из предыдущего ответа; для первого среза не указывается.
+     * @param size       Размер среза.
+     * @return Срез задач в формате DTO с курсором на следующий срез.
+     * @throws UserNotFoundException Если исполнитель не найден.
+     * @throws InvalidCursorException Если курсор некорректен.
+     */
+    @GetMapping("/by-executor/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<TaskDTO>> getTasksByExecutorCursor(@RequestParam Long executorId,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(defaultValue = "20") int size) {
+        CursorPage<TaskDTO> tasks = taskService.getTasksByExecutor(executorId, cursor, size);
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * Возвращает все задачи автора потоком NDJSON в порядке идентификаторов. Ответ не накапливается
+     * в памяти: задачи читаются из БД срезами и отправляются клиенту по мере чтения.
+     * Доступно только администраторам.
+     *
+     * @param authorId Идентификатор автора.
+     * @return Поток задач в формате DTO, по одной на строку.
+     * @throws UserNotFoundException Если автор не найден.
+     */
+    @GetMapping(value = "/by-author/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamTasksByAuthor(@RequestParam Long authorId) {
+        return ndjsonStreamWriter.stream((cursor, size) -> taskService.getTasksByAuthor(authorId, cursor, size));
+    }
+
+    /**
+     * Возвращает все задачи исполнителя потоком NDJSON в порядке идентификаторов. Ответ не накапливается
+     * в памяти: задачи читаются из БД срезами и отправляются клиенту по мере чтения.
+     * Доступно только администраторам.
+     *
+     * @param executorId Идентификатор исполнителя.
+     * @return Поток задач в формате DTO, по одной на строку.
+     * @throws UserNotFoundException Если исполнитель не найден.
+     */
+    @GetMapping(value = "/by-executor/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamTasksByExecutor(@RequestParam Long executorId) {
+        return ndjsonStreamWriter.stream((cursor, size) -> taskService.getTasksByExecutor(executorId, cursor, size));
+    }
+
+    /**
+     * Выгружает задачи в формате NDJSON (по одной задаче на строку). Ответ пишется по мере чтения из БД
+     * и не накапливается в памяти. Доступно только администраторам.
+     *
+     * @param authorId   Идентификатор автора (необязательный фильтр).
+     * @param executorId Идентификатор исполнителя (необязательный фильтр).
+     * @param comments   Добавлять ли к задачам их комментарии.
+     * @param request    Текущий запрос.
+     * @return Файл выгрузки.
+     * @throws UserNotFoundException Если указанный автор или исполнитель не найден.
+     */
+    @GetMapping("/export/ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportTasksNdjson(@RequestParam(required = false) Long authorId,
+                                                                   @RequestParam(required = false) Long executorId,
+                                                                   @RequestParam(defaultValue = "false") boolean comments,
+                                                                   NativeWebRequest request) {
+        taskExportService.checkFilter(authorId, executorId);
+        taskExportWriter.applyTimeout(request);
+        return exportResponse(MediaType.APPLICATION_NDJSON, "tasks.ndjson",
+                outputStream -> taskExportWriter.writeNdjson(outputStream, authorId, executorId, comments));
+    }
+
+    /**
+     * Выгружает задачи в формате CSV. С комментариями каждая строка содержит задачу и один ее комментарий.
+     * Ответ пишется по мере чтения из БД и не накапливается в памяти. Доступно только администраторам.
+     *
+     * @param authorId   Идентификатор автора (необязательный фильтр).
+     * @param executorId Идентификатор исполнителя (необязательный фильтр).
+     * @param comments   Добавлять ли к задачам их комментарии.
+     * @param request    Текущий запрос.
+     * @return Файл выгрузки.
+     * @throws UserNotFoundException Если указанный автор или исполнитель не найден.
+     */
+    @GetMapping("/export/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportTasksCsv(@RequestParam(required = false) Long authorId,
+                                                                @RequestParam(required = false) Long executorId,
+                                                                @RequestParam(defaultValue = "false") boolean comments,
+                                                                NativeWebRequest request) {
+        taskExportService.checkFilter(authorId, executorId);
+        taskExportWriter.applyTimeout(request);
+        return exportResponse(TEXT_CSV, "tasks.csv",
+                outputStream -> taskExportWriter.writeCsv(outputStream, authorId, executorId, comments));
+    }
+
+    /**
+     * Подписывает текущего пользователя на изменения задач, где он автор или исполнитель (Server-Sent Events).
+     * Каждое событие содержит тип изменения, идентификатор задачи и ее статус; полное состояние задачи
+     * клиент при необходимости запрашивает отдельно. При разрыве подключения клиент должен переподключиться
+     * и перечитать состояние задач, так как события за время разрыва не сохраняются.
+     *
+     * @param authentication Текущий пользователь.
+     * @return Поток событий.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToTaskEvents(Authentication authentication) {
+        Long userId = userService.findDTOByEmail(authentication.getName()).getId();
+        return taskEventBroadcaster.subscribe(userId);
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> exportResponse(MediaType mediaType, String fileName,
+                                                                        StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
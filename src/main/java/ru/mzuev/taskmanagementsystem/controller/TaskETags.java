@@ -0,0 +1,73 @@
+package ru.mzuev.taskmanagementsystem.controller;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Строгие ETag задач на основе их версии и разбор условных заголовков If-None-Match и If-Match (RFC 9110).
+ */
+final class TaskETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private TaskETags() {
+    }
+
+    /**
+     * Формирует строгий ETag по версии задачи.
+     *
+     * @param version Версия задачи.
+     * @return ETag в кавычках.
+     */
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Проверяет, совпадает ли версия задачи с одним из значений If-None-Match (слабое сравнение).
+     *
+     * @param ifNoneMatch Значение заголовка.
+     * @param version Текущая версия задачи.
+     * @return true, если клиент уже имеет актуальное представление задачи.
+     */
+    static boolean matchesNoneMatch(String ifNoneMatch, long version) {
+        if (ANY.equals(ifNoneMatch.trim())) {
+            return true;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith(WEAK_PREFIX)) {
+                value = value.substring(WEAK_PREFIX.length());
+            }
+            if (value.equals(of(version))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Извлекает версии из заголовка If-Match (строгое сравнение: слабые ETag не совпадают ни с чем).
+     *
+     * @param ifMatch Значение заголовка или null.
+     * @return Допустимые версии задачи или null, если версия не проверяется (заголовок отсутствует или равен *).
+     */
+    static Set<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(value.substring(1, value.length() - 1)));
+                } catch (NumberFormatException ex) {
+                    // Чужой ETag не совпадает ни с одной версией
+                }
+            }
+        }
+        return versions;
+    }
+}
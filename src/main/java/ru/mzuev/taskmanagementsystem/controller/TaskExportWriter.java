@@ -0,0 +1,196 @@
+package ru.mzuev.taskmanagementsystem.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import ru.mzuev.taskmanagementsystem.dto.CommentDTO;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.dto.TaskExportItem;
+import ru.mzuev.taskmanagementsystem.exception.ExportTimeoutException;
+import ru.mzuev.taskmanagementsystem.service.TaskExportService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Записывает выгрузку задач в выходной поток ответа в форматах NDJSON и CSV.
+ * Строки пишутся по мере чтения из БД; буфер ответа сбрасывается клиенту по заполнении.
+ * Длительность выгрузки (и ее читающей транзакции) ограничена настройкой tasks.export.timeout,
+ * а не общим spring.mvc.async.request-timeout: срок проверяется перед записью каждой строки, при превышении
+ * выгрузка прерывается с {@link ExportTimeoutException}.
+ */
+@Component
+public class TaskExportWriter {
+
+    private static final String TASK_HEADER = "id,title,description,status,priority,authorId,executorId";
+    private static final String COMMENT_HEADER = ",commentId,commentContent,commentCreatedAt,commentUserId";
+
+    // Тайм-аут контейнера срабатывает позже срока выгрузки: после него клиент получает обрезанный файл
+    // без признака ошибки, поэтому выгрузку должна прерывать проверка срока при записи строк
+    private static final Duration ASYNC_TIMEOUT_MARGIN = Duration.ofSeconds(30);
+
+    private final TaskExportService taskExportService;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    /**
+     * Создает компонент.
+     *
+     * @param taskExportService Сервис выгрузки задач.
+     * @param objectMapper Jackson-маппер приложения.
+     * @param timeout Допустимая длительность выгрузки.
+     */
+    public TaskExportWriter(TaskExportService taskExportService, ObjectMapper objectMapper,
+                            @Value("${tasks.export.timeout:1h}") Duration timeout) {
+        this.taskExportService = taskExportService;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Назначает асинхронной обработке запроса тайм-аут выгрузки вместо общего spring.mvc.async.request-timeout.
+     * Вызывается в обработчике запроса до возврата потокового ответа.
+     *
+     * @param request Текущий запрос.
+     */
+    public void applyTimeout(NativeWebRequest request) {
+        long asyncTimeoutMillis = timeout.plus(ASYNC_TIMEOUT_MARGIN).toMillis();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(TaskExportWriter.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest asyncRequest, Callable<T> task) {
+                        if (asyncRequest instanceof AsyncWebRequest asyncWebRequest) {
+                            asyncWebRequest.setTimeout(asyncTimeoutMillis);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Пишет выгрузку в формате NDJSON: одна задача на строку, комментарии — вложенным массивом.
+     *
+     * @param outputStream Выходной поток ответа.
+     * @param authorId     Идентификатор автора или null.
+     * @param executorId   Идентификатор исполнителя или null.
+     * @param withComments Добавлять ли комментарии.
+     * @throws IOException В случае ошибок записи.
+     */
+    public void writeNdjson(OutputStream outputStream, Long authorId, Long executorId, boolean withComments)
+            throws IOException {
+        // При ошибке поток ответа не закрывается: закрытие завершило бы неполный ответ как успешный
+        JsonGenerator generator = objectMapper.createGenerator(outputStream);
+        exportTasks(authorId, executorId, withComments, item -> {
+            generator.writeObject(item);
+            generator.writeRaw('\n');
+        });
+        generator.close();
+    }
+
+    /**
+     * Пишет выгрузку в формате CSV. Без комментариев — одна задача на строку; с комментариями — одна строка
+     * на комментарий с повторением полей задачи, задача без комментариев выводится одной строкой
+     * с пустыми полями комментария.
+     *
+     * @param outputStream Выходной поток ответа.
+     * @param authorId     Идентификатор автора или null.
+     * @param executorId   Идентификатор исполнителя или null.
+     * @param withComments Добавлять ли комментарии.
+     * @throws IOException В случае ошибок записи.
+     */
+    public void writeCsv(OutputStream outputStream, Long authorId, Long executorId, boolean withComments)
+            throws IOException {
+        // При ошибке поток ответа не закрывается: закрытие завершило бы неполный ответ как успешный
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(withComments ? TASK_HEADER + COMMENT_HEADER : TASK_HEADER);
+        writer.write("\r\n");
+        exportTasks(authorId, executorId, withComments, item -> {
+            List<CommentDTO> comments = item.getComments();
+            if (comments == null || comments.isEmpty()) {
+                writeCsvRow(writer, item.getTask(), null, withComments);
+            } else {
+                for (CommentDTO comment : comments) {
+                    writeCsvRow(writer, item.getTask(), comment, true);
+                }
+            }
+        });
+        writer.close();
+    }
+
+    private void exportTasks(Long authorId, Long executorId, boolean withComments, ItemWriter itemWriter)
+            throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            taskExportService.exportTasks(authorId, executorId, withComments, item -> {
+                if (System.nanoTime() - deadline > 0) {
+                    // Транзакция выгрузки откатывается вместе с исключением
+                    throw new ExportTimeoutException(timeout);
+                }
+                try {
+                    itemWriter.write(item);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            // Клиент закрыл соединение: транзакция выгрузки уже откатилась, пробрасываем исходную ошибку
+            throw ex.getCause();
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, TaskDTO task, CommentDTO comment, boolean withComments)
+            throws IOException {
+        StringBuilder row = new StringBuilder();
+        appendCsv(row, task.getId()).append(',');
+        appendCsv(row, task.getTitle()).append(',');
+        appendCsv(row, task.getDescription()).append(',');
+        appendCsv(row, task.getStatus()).append(',');
+        appendCsv(row, task.getPriority()).append(',');
+        appendCsv(row, task.getAuthorId()).append(',');
+        appendCsv(row, task.getExecutorId());
+        if (withComments) {
+            row.append(',');
+            appendCsv(row, comment != null ? comment.getId() : null).append(',');
+            appendCsv(row, comment != null ? comment.getContent() : null).append(',');
+            appendCsv(row, comment != null ? comment.getCreatedAt() : null).append(',');
+            appendCsv(row, comment != null ? comment.getUserId() : null);
+        }
+        row.append("\r\n");
+        writer.write(row.toString());
+    }
+
+    /**
+     * Добавляет значение поля CSV (RFC 4180): значения с разделителем, кавычками или переводом строки
+     * заключаются в кавычки, кавычки внутри удваиваются.
+     */
+    private static StringBuilder appendCsv(StringBuilder row, Object value) {
+        if (value == null) {
+            return row;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return row.append(text);
+        }
+        return row.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * Запись одной строки выгрузки.
+     */
+    @FunctionalInterface
+    private interface ItemWriter {
+        void write(TaskExportItem item) throws IOException;
+    }
+}
@@ -0,0 +1,70 @@
+package ru.mzuev.taskmanagementsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Запрос на массовое обновление статуса задач. Задачи задаются списком идентификаторов
+ * либо фильтром (автор, исполнитель, текущий статус); если указан список, фильтр не применяется.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequest {
+
+    /**
+     * Максимальное количество задач в одном запросе (и в списке, и по фильтру).
+     */
+    public static final int MAX_TASKS = 10000;
+
+    /**
+     * Идентификаторы задач (не более 10000).
+     */
+    @Size(max = MAX_TASKS, message = "{validation.task.bulk.ids.size}")
+    private List<Long> taskIds;
+
+    /**
+     * Фильтр по автору задачи.
+     */
+    private Long authorId;
+
+    /**
+     * Фильтр по исполнителю задачи.
+     */
+    private Long executorId;
+
+    /**
+     * Фильтр по текущему статусу задачи.
+     */
+    private String currentStatus;
+
+    /**
+     * Новый статус задач. Допустимые значения: "в очереди", "в работе", "на проверке", "завершена".
+     */
+    @NotBlank(message = "{validation.task.status.required}")
+    @Pattern(regexp = "в очереди|в работе|на проверке|завершена",
+            message = "{validation.task.status.pattern}")
+    private String status;
+
+    /**
+     * Проверяет, что задан список задач или хотя бы одно условие фильтра.
+     *
+     * @return true, если набор задач определен.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    @AssertTrue(message = "{validation.task.bulk.target.required}")
+    public boolean isTargetSpecified() {
+        return (taskIds != null && !taskIds.isEmpty())
+                || authorId != null || executorId != null || currentStatus != null;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.mzuev.taskmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Результат массового обновления статуса задач. Для запроса со списком идентификаторов содержит итог
+ * по каждой задаче, для запроса с фильтром - только количество обновленных задач.
+ */
+@Data
+@NoArgsConstructor
+public class BulkStatusUpdateResult {
+
+    /**
+     * Количество обновленных задач.
+     */
+    private int updated;
+
+    /**
+     * Итог по каждой задаче (пустой для запроса с фильтром).
+     */
+    private List<TaskResult> results = new ArrayList<>();
+
+    /**
+     * Итог обновления одной задачи.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskResult {
+
+        /**
+         * Идентификатор задачи.
+         */
+        private Long taskId;
+
+        /**
+         * Итог обновления.
+         */
+        private Outcome outcome;
+    }
+
+    /**
+     * Возможные итоги обновления задачи.
+     */
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        FORBIDDEN
+    }
+}
@@ -4,12 +4,18 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
 
 /**
  * DTO для представления комментария.
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CommentDTO {
 
     /**
@@ -24,6 +30,11 @@ public class CommentDTO {
     @Size(max = 1000, message = "{validation.comment.content.size}")
     private String content;
 
+    /**
+     * Дата и время создания комментария.
+     */
+    private LocalDateTime createdAt;
+
     /**
      * Идентификатор задачи, к которой относится комментарий (обязательное поле).
      */
@@ -0,0 +1,34 @@
+package ru.mzuev.taskmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Срез результатов курсорной (keyset) пагинации. В отличие от страницы не содержит общего количества
+ * элементов, поэтому не требует отдельного COUNT-запроса.
+ *
+ * @param <T> Тип элементов.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /**
+     * Элементы текущего среза.
+     */
+    private List<T> content;
+
+    /**
+     * Непрозрачный курсор для получения следующего среза. Равен null, если следующего среза нет.
+     */
+    private String nextCursor;
+
+    /**
+     * Признак наличия следующего среза.
+     */
+    private boolean hasNext;
+}
@@ -1,16 +1,21 @@
 package ru.mzuev.taskmanagementsystem.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * DTO для представления задачи. Содержит данные для создания, обновления и отображения задач.
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class TaskDTO {
 
     /**
@@ -58,4 +63,26 @@ public class TaskDTO {
      * Идентификатор исполнителя задачи. Может быть null, если исполнитель не назначен.
      */
     private Long executorId;
-}
\ No newline at end of file
+
+    /**
+     * Версия задачи. Передается клиенту в заголовке ETag, а не в теле ответа.
+     */
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * Создает DTO без версии (используется в JPQL-проекциях списков задач).
+     *
+     * @param id          Идентификатор задачи.
+     * @param title       Название.
+     * @param description Описание.
+     * @param status      Статус.
+     * @param priority    Приоритет.
+     * @param authorId    Идентификатор автора.
+     * @param executorId  Идентификатор исполнителя.
+     */
+    public TaskDTO(Long id, String title, String description, String status, String priority,
+                   Long authorId, Long executorId) {
+        this(id, title, description, status, priority, authorId, executorId, null);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.mzuev.taskmanagementsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Строка выгрузки задач: поля задачи и, если выгрузка запрошена с комментариями, ее комментарии.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskExportItem {
+
+    /**
+     * Задача; при сериализации ее поля выводятся на верхнем уровне.
+     */
+    @JsonUnwrapped
+    private TaskDTO task;
+
+    /**
+     * Комментарии задачи в порядке создания или null, если выгрузка без комментариев.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CommentDTO> comments;
+}
@@ -0,0 +1,61 @@
+package ru.mzuev.taskmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Результат массового импорта задач: количество созданных, обновленных и отклоненных строк
+ * и описание ошибок по строкам.
+ */
+@Data
+@NoArgsConstructor
+public class TaskImportResult {
+
+    /**
+     * Количество созданных задач.
+     */
+    private int created;
+
+    /**
+     * Количество обновленных задач (строки с названием уже существующей задачи).
+     */
+    private int updated;
+
+    /**
+     * Количество отклоненных строк.
+     */
+    private int failed;
+
+    /**
+     * Ошибки по строкам. Список ограничен по размеру, полное количество ошибок — в поле failed.
+     */
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * Ошибка импорта одной строки.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        /**
+         * Номер строки (элемента массива) во входных данных, начиная с 1.
+         */
+        private int row;
+
+        /**
+         * Название задачи из строки, если оно было прочитано.
+         */
+        private String title;
+
+        /**
+         * Описание ошибки.
+         */
+        private String message;
+    }
+}
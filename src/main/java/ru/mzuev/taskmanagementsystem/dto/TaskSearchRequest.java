@@ -0,0 +1,44 @@
+package ru.mzuev.taskmanagementsystem.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Параметры полнотекстового поиска задач: строка запроса и необязательные фильтры.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchRequest {
+
+    /**
+     * Строка запроса. Задача подходит, если каждое слово запроса (или слово, начинающееся с него)
+     * встречается в названии, описании или комментариях задачи.
+     */
+    @NotBlank(message = "{validation.task.search.query.required}")
+    @Size(max = 200, message = "{validation.task.search.query.size}")
+    private String query;
+
+    /**
+     * Фильтр по статусу задачи.
+     */
+    @Pattern(regexp = "в очереди|в работе|на проверке|завершена",
+            message = "{validation.task.status.pattern}")
+    private String status;
+
+    /**
+     * Фильтр по приоритету задачи.
+     */
+    @Pattern(regexp = "низкий|средний|высокий",
+            message = "{validation.task.priority.pattern}")
+    private String priority;
+
+    /**
+     * Фильтр по исполнителю задачи.
+     */
+    private Long executorId;
+}
@@ -0,0 +1,53 @@
+package ru.mzuev.taskmanagementsystem.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import ru.mzuev.taskmanagementsystem.model.Task;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Событие изменения задачи. Публикуется сервисами внутри транзакции и доставляется подписчикам
+ * только после ее коммита (см. {@link TaskEventBroadcaster}).
+ *
+ * @param type         Тип изменения.
+ * @param taskId       Идентификатор задачи.
+ * @param status       Статус задачи после изменения (null для удаленной задачи).
+ * @param recipientIds Идентификаторы пользователей, которым адресовано событие; клиенту не передаются.
+ */
+public record TaskChangeEvent(Type type, Long taskId, String status, @JsonIgnore Set<Long> recipientIds) {
+
+    /**
+     * Создает событие для автора и исполнителя задачи, а также дополнительных получателей
+     * (например, исполнителя, с которого задача снята).
+     *
+     * @param type                Тип изменения.
+     * @param task                Задача.
+     * @param status              Статус задачи после изменения.
+     * @param additionalRecipient Дополнительный получатель или null.
+     * @return Событие.
+     */
+    public static TaskChangeEvent of(Type type, Task task, String status, Long additionalRecipient) {
+        Set<Long> recipientIds = new HashSet<>();
+        // Идентификаторы берутся из ленивых ссылок без загрузки пользователей
+        recipientIds.add(task.getAuthor().getId());
+        if (task.getExecutor() != null) {
+            recipientIds.add(task.getExecutor().getId());
+        }
+        if (additionalRecipient != null) {
+            recipientIds.add(additionalRecipient);
+        }
+        return new TaskChangeEvent(type, task.getId(), status, Set.copyOf(recipientIds));
+    }
+
+    /**
+     * Тип изменения задачи.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED,
+        COMMENT_ADDED
+    }
+}
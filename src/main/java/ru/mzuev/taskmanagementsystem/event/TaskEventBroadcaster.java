@@ -0,0 +1,267 @@
+package ru.mzuev.taskmanagementsystem.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Рассылает события изменения задач подписчикам Server-Sent Events текущего экземпляра приложения.
+ * Подписки хранятся в реестре по идентификатору пользователя, поэтому событие обходит только
+ * подключения своих получателей. У каждого подключения своя ограниченная очередь: рассылка лишь
+ * кладет событие в очередь, а запись в сокет выполняет отдельный пул потоков. Подключение, очередь
+ * которого переполнена (клиент не успевает читать), закрывается — клиент переподключится и перечитает
+ * актуальное состояние. Так медленный клиент не задерживает коммит и доставку остальным.
+ * При остановке приложения подключения закрываются до ожидания завершения активных запросов,
+ * иначе открытые подключения задерживали бы остановку.
+ */
+@Slf4j
+@Component
+public class TaskEventBroadcaster implements SmartLifecycle {
+
+    // Служебное сообщение для проверки живости подключения
+    private static final Object HEARTBEAT = new Object();
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final long timeoutMs;
+    private final int bufferSize;
+    private final int dispatchThreads;
+    private final long heartbeatMs;
+
+    private volatile ExecutorService dispatchExecutor;
+    private ScheduledExecutorService heartbeatExecutor;
+    private volatile boolean running;
+
+    /**
+     * Создает компонент.
+     *
+     * @param timeout Время жизни подключения, после которого клиент переподключается.
+     * @param bufferSize Максимальное количество неотправленных событий на подключение.
+     * @param dispatchThreads Количество потоков, записывающих события в подключения.
+     * @param heartbeatInterval Интервал проверки живости подключений.
+     */
+    public TaskEventBroadcaster(@Value("${tasks.events.timeout:30m}") Duration timeout,
+                                @Value("${tasks.events.buffer-size:256}") int bufferSize,
+                                @Value("${tasks.events.dispatch-threads:4}") int dispatchThreads,
+                                @Value("${tasks.events.heartbeat-interval:25s}") Duration heartbeatInterval) {
+        this.timeoutMs = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.dispatchThreads = dispatchThreads;
+        this.heartbeatMs = heartbeatInterval.toMillis();
+    }
+
+    /**
+     * Подписывает пользователя на события по задачам, где он автор или исполнитель.
+     *
+     * @param userId Идентификатор пользователя.
+     * @return Подключение Server-Sent Events.
+     */
+    public SseEmitter subscribe(Long userId) {
+        return register(userId, new SseEmitter(timeoutMs));
+    }
+
+    /**
+     * Регистрирует подключение пользователя в реестре.
+     *
+     * @param userId Идентификатор пользователя.
+     * @param emitter Подключение.
+     * @return То же подключение.
+     */
+    public SseEmitter register(Long userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Возвращает количество активных подключений пользователя.
+     *
+     * @param userId Идентификатор пользователя.
+     * @return Количество подключений.
+     */
+    public int subscriberCount(Long userId) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        return userSubscribers != null ? userSubscribers.size() : 0;
+    }
+
+    /**
+     * Рассылает событие после коммита транзакции, в которой оно опубликовано.
+     * Не блокируется на записи в подключения.
+     *
+     * @param event Событие изменения задачи.
+     */
+    @TransactionalEventListener
+    public void onTaskChange(TaskChangeEvent event) {
+        for (Long userId : event.recipientIds()) {
+            Set<Subscriber> userSubscribers = subscribers.get(userId);
+            if (userSubscribers != null) {
+                userSubscribers.forEach(subscriber -> offer(subscriber, event));
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        dispatchExecutor = Executors.newFixedThreadPool(dispatchThreads, daemonThreads("task-events-dispatch"));
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(daemonThreads("task-events-heartbeat"));
+        heartbeatExecutor.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    /**
+     * Закрывает все подключения и останавливает потоки рассылки. Уже поставленные в очередь
+     * закрытия подключений выполняются до остановки потоков.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        heartbeatExecutor.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(this::drop));
+        dispatchExecutor.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Останавливается раньше веб-сервера, который при плавной остановке ждет завершения активных запросов.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE;
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> offer(subscriber, HEARTBEAT)));
+    }
+
+    private void offer(Subscriber subscriber, Object message) {
+        if (subscriber.queue.offer(message)) {
+            schedule(subscriber);
+        } else {
+            log.warn("Подписчик {} не успевает получать события, подключение закрыто", subscriber.userId);
+            drop(subscriber);
+        }
+    }
+
+    /**
+     * Закрывает подключение без ожидания: само закрытие выполняет поток рассылки, так как запись
+     * в подключение медленного клиента может быть заблокирована.
+     */
+    private void drop(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.queue.clear();
+        schedule(subscriber);
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                dispatchExecutor.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException ex) {
+                // Приложение останавливается, подключение закроет веб-сервер
+                subscriber.scheduled.set(false);
+                remove(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Отправляет накопленные события подключения. Для одного подключения одновременно работает
+     * не больше одного потока, поэтому события приходят в порядке публикации.
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            Object message;
+            while (!subscriber.closed && (message = subscriber.queue.poll()) != null) {
+                send(subscriber.emitter, message);
+            }
+            if (subscriber.closed) {
+                subscriber.completed = true;
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Клиент отключился
+            subscriber.completed = true;
+            remove(subscriber);
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        // Событие или закрытие могли поступить, пока поток еще числился занятым этим подключением
+        if (subscriber.closed ? !subscriber.completed : !subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void send(SseEmitter emitter, Object message) throws IOException {
+        if (message == HEARTBEAT) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else {
+            TaskChangeEvent event = (TaskChangeEvent) message;
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(eventIds.incrementAndGet()))
+                    .name("task")
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Подключение пользователя с очередью неотправленных событий.
+     */
+    private static final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile boolean completed;
+
+        private Subscriber(Long userId, SseEmitter emitter, BlockingQueue<Object> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.mzuev.taskmanagementsystem.exception;
+
+/**
+ * Исключение, выбрасываемое, когда фильтр массового обновления затрагивает больше допустимого количества задач.
+ */
+public class BulkUpdateLimitExceededException extends RuntimeException {
+
+    /**
+     * Создает исключение для указанного ограничения.
+     *
+     * @param maxTasks Максимальное количество задач в одном запросе.
+     */
+    public BulkUpdateLimitExceededException(int maxTasks) {
+        super("Фильтр затрагивает больше " + maxTasks + " задач: уточните условия фильтра");
+    }
+}
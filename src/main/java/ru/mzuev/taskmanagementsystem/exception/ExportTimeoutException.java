@@ -0,0 +1,18 @@
+package ru.mzuev.taskmanagementsystem.exception;
+
+import java.time.Duration;
+
+/**
+ * Исключение, выбрасываемое, когда выгрузка задач не уложилась в отведенное время (tasks.export.timeout).
+ */
+public class ExportTimeoutException extends RuntimeException {
+
+    /**
+     * Создает исключение для указанного ограничения.
+     *
+     * @param timeout Допустимая длительность выгрузки.
+     */
+    public ExportTimeoutException(Duration timeout) {
+        super("Выгрузка не завершилась за " + timeout.toSeconds() + " с: уточните фильтр выгрузки");
+    }
+}
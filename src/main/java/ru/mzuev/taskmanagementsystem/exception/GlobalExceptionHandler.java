@@ -1,6 +1,9 @@
 package ru.mzuev.taskmanagementsystem.exception;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ProblemDetail;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -79,6 +82,74 @@ public class GlobalExceptionHandler {
         return problemDetail;
     }
 
+    /**
+     * Обрабатывает повторное использование ключа идемпотентности для другого запроса.
+     *
+     * @param ex Исключение {@link IdempotencyKeyMismatchException}.
+     * @return Ответ с HTTP-статусом 422 и сообщением об ошибке.
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ProblemDetail handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                ex.getMessage()
+        );
+        problemDetail.setTitle("Ключ идемпотентности не совпадает с запросом");
+        problemDetail.setProperty("timestamp", Instant.now());
+        return problemDetail;
+    }
+
+    /**
+     * Обрабатывает несовпадение версии задачи с условием запроса If-Match.
+     *
+     * @param ex Исключение {@link TaskVersionMismatchException}.
+     * @return Ответ с HTTP-статусом 412 и сообщением об ошибке.
+     */
+    @ExceptionHandler(TaskVersionMismatchException.class)
+    public ProblemDetail handleTaskVersionMismatch(TaskVersionMismatchException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.PRECONDITION_FAILED,
+                ex.getMessage()
+        );
+        problemDetail.setTitle("Версия не совпадает");
+        problemDetail.setProperty("timestamp", Instant.now());
+        return problemDetail;
+    }
+
+    /**
+     * Обрабатывает одновременное изменение сущности несколькими запросами (оптимистическая блокировка).
+     *
+     * @param ex Исключение {@link OptimisticLockingFailureException}.
+     * @return Ответ с HTTP-статусом 409 и общим сообщением об ошибке.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.CONFLICT,
+                "Данные были изменены другим запросом, повторите операцию"
+        );
+        problemDetail.setTitle("Конфликт данных");
+        problemDetail.setProperty("timestamp", Instant.now());
+        return problemDetail;
+    }
+
+    /**
+     * Обрабатывает нарушение ограничений целостности БД, не преобразованное сервисами в доменные исключения.
+     *
+     * @param ex Исключение {@link DataIntegrityViolationException}.
+     * @return Ответ с HTTP-статусом 409 и общим сообщением об ошибке.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ProblemDetail handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.CONFLICT,
+                "Нарушено ограничение целостности данных"
+        );
+        problemDetail.setTitle("Конфликт данных");
+        problemDetail.setProperty("timestamp", Instant.now());
+        return problemDetail;
+    }
+
     /**
      * Обрабатывает отказ в доступе к ресурсу.
      *
@@ -182,6 +253,64 @@ public class GlobalExceptionHandler {
         return problemDetail;
     }
 
+    /**
+     * Обрабатывает некорректный курсор пагинации.
+     *
+     * @param ex Исключение {@link InvalidCursorException}.
+     * @return Ответ с HTTP-статусом 400 и сообщением об ошибке.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ProblemDetail handleInvalidCursor(InvalidCursorException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.BAD_REQUEST,
+                ex.getMessage()
+        );
+        problemDetail.setTitle("Некорректный запрос");
+        problemDetail.setProperty("timestamp", Instant.now());
+        return problemDetail;
+    }
+
+    /**
+     * Обрабатывает превышение количества задач в массовом обновлении по фильтру.
+     *
+     * @param ex Исключение {@link BulkUpdateLimitExceededException}.
+     * @return Ответ с HTTP-статусом 400 и сообщением об ошибке.
+     */
+    @ExceptionHandler(BulkUpdateLimitExceededException.class)
+    public ProblemDetail handleBulkUpdateLimitExceeded(BulkUpdateLimitExceededException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.BAD_REQUEST,
+                ex.getMessage()
+        );
+        problemDetail.setTitle("Некорректный запрос");
+        problemDetail.setProperty("timestamp", Instant.now());
+        return problemDetail;
+    }
+
+    /**
+     * Обрабатывает превышение времени выгрузки. Если часть выгрузки уже отправлена, ответ с ошибкой
+     * записать нельзя: исключение передается контейнеру, который обрывает соединение, чтобы клиент
+     * не принял неполный файл за целый.
+     *
+     * @param ex Исключение {@link ExportTimeoutException}.
+     * @param response HTTP-ответ.
+     * @return Ответ с HTTP-статусом 503 и сообщением об ошибке.
+     * @throws ExportTimeoutException Если ответ уже начал отправляться.
+     */
+    @ExceptionHandler(ExportTimeoutException.class)
+    public ProblemDetail handleExportTimeout(ExportTimeoutException ex, HttpServletResponse response) {
+        if (response.isCommitted()) {
+            throw ex;
+        }
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage()
+        );
+        problemDetail.setTitle("Превышено время выгрузки");
+        problemDetail.setProperty("timestamp", Instant.now());
+        return problemDetail;
+    }
+
     /**
      * Обрабатывает все непредвиденные исключения.
      *
@@ -0,0 +1,17 @@
+package ru.mzuev.taskmanagementsystem.exception;
+
+/**
+ * Исключение, выбрасываемое при повторном использовании ключа идемпотентности
+ * другим пользователем или с другим телом запроса.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    /**
+     * Создает исключение с сообщением о несовпадении запроса.
+     *
+     * @param key Ключ идемпотентности.
+     */
+    public IdempotencyKeyMismatchException(String key) {
+        super("Ключ идемпотентности " + key + " уже использован для другого запроса");
+    }
+}
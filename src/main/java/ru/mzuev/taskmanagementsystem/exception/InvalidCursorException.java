@@ -0,0 +1,16 @@
+package ru.mzuev.taskmanagementsystem.exception;
+
+/**
+ * Исключение, выбрасываемое при получении некорректного курсора пагинации.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    /**
+     * Создает исключение для указанного курсора.
+     *
+     * @param cursor Некорректный курсор.
+     */
+    public InvalidCursorException(String cursor) {
+        super("Некорректный курсор пагинации: " + cursor);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.mzuev.taskmanagementsystem.exception;
+
+/**
+ * Исключение, выбрасываемое при изменении задачи, если ее текущая версия не совпадает
+ * с версией из условия запроса (заголовок If-Match).
+ */
+public class TaskVersionMismatchException extends RuntimeException {
+
+    /**
+     * Создает исключение с сообщением о несовпадении версии.
+     *
+     * @param taskId Идентификатор задачи.
+     */
+    public TaskVersionMismatchException(Long taskId) {
+        super("Задача с id " + taskId + " была изменена другим запросом");
+    }
+}
@@ -0,0 +1,72 @@
+package ru.mzuev.taskmanagementsystem.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.mzuev.taskmanagementsystem.security.JwtAuthenticationFilter;
+import ru.mzuev.taskmanagementsystem.sql.RequestStatements;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Журнал HTTP-запросов: по завершении каждого запроса в лог ru.mzuev.taskmanagementsystem.requests пишется
+ * событие с методом, путем, эндпоинтом, статусом ответа, длительностью, идентификатором пользователя
+ * и количеством SQL-запросов (если включен учет sql.budget.enabled). Logback выводит эти события в JSON
+ * через асинхронный аппендер (см. logback-spring.xml). Фильтр стоит внутри StatementBudgetFilter,
+ * но перед фильтрами Spring Security, чтобы в журнал попадали и отклоненные запросы.
+ * Выключается настройкой log.requests.enabled=false.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "log.requests.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    private static final Logger REQUEST_LOG = LoggerFactory.getLogger("ru.mzuev.taskmanagementsystem.requests");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (REQUEST_LOG.isInfoEnabled()) {
+                log(request, response, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / 1000.0);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, double durationMillis) {
+        RequestStatements statements = RequestStatements.current();
+        LoggingEventBuilder event = REQUEST_LOG.atInfo()
+                .setMessage("{} {} {}")
+                .addArgument(request.getMethod())
+                .addArgument(request.getRequestURI())
+                .addArgument(response.getStatus())
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("status", response.getStatus())
+                .addKeyValue("duration_ms", durationMillis)
+                .addKeyValue("user_id", request.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE));
+        // Для асинхронных ответов (SSE, NDJSON) фиксируется только обработка до начала потоковой передачи
+        if (request.isAsyncStarted()) {
+            event.addKeyValue("async", true);
+        }
+        if (statements != null) {
+            event.addKeyValue("endpoint", statements.getEndpoint())
+                    .addKeyValue("statements", statements.getCount())
+                    .addKeyValue("jdbc_ms", statements.getJdbcMillis());
+        }
+        event.log();
+    }
+}
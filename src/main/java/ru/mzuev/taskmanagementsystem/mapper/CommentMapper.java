@@ -29,6 +29,7 @@ public class CommentMapper {
         CommentDTO commentDTO = new CommentDTO();
         commentDTO.setId(comment.getId());
         commentDTO.setContent(comment.getContent());
+        commentDTO.setCreatedAt(comment.getCreatedAt());
         commentDTO.setTaskId(comment.getTask().getId());
         commentDTO.setUserId(comment.getUser().getId());
         return commentDTO;
@@ -31,6 +31,7 @@ public class TaskMapper {
         taskDTO.setPriority(task.getPriority());
         taskDTO.setAuthorId(task.getAuthor().getId());
         taskDTO.setExecutorId(task.getExecutor() != null ? task.getExecutor().getId() : null);
+        taskDTO.setVersion(task.getVersion());
         return taskDTO;
     }
 
@@ -39,7 +39,7 @@ public class Comment {
     /**
      * Задача, к которой относится комментарий. Связь с сущностью {@link Task}.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id", nullable = false)
     @JsonBackReference
     private Task task;
@@ -47,7 +47,7 @@ public class Comment {
     /**
      * Автор комментария. Связь с сущностью {@link User}.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
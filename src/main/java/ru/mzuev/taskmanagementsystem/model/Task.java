@@ -2,6 +2,9 @@ package ru.mzuev.taskmanagementsystem.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.mzuev.taskmanagementsystem.config.HibernateCacheConfig;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.Getter;
@@ -13,18 +16,30 @@ import lombok.NoArgsConstructor;
  */
 @Entity
 @Table(name = "tasks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.TASK_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
 public class Task {
 
     /**
-     * Уникальный идентификатор задачи.
+     * Уникальный идентификатор задачи. Выдается последовательностью tasks_seq блоками по 50,
+     * что позволяет Hibernate отправлять INSERT пакетами.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Версия задачи. Увеличивается при каждом изменении; используется для оптимистической блокировки
+     * и как ETag в API.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Название задачи. Обязательное поле.
      */
@@ -51,14 +66,14 @@ public class Task {
     /**
      * Автор задачи. Связь с сущностью {@link User}.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
     /**
      * Исполнитель задачи. Связь с сущностью {@link User}.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "executor_id")
     private User executor;
 
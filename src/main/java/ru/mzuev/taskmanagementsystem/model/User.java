@@ -1,6 +1,9 @@
 package ru.mzuev.taskmanagementsystem.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.mzuev.taskmanagementsystem.config.HibernateCacheConfig;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
@@ -10,6 +13,8 @@ import lombok.NoArgsConstructor;
  */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -40,6 +45,12 @@ public class User {
     @Column(nullable = false)
     private String role;
 
+    /**
+     * Версия токенов пользователя. Токены с меньшей версией отозваны (см. TokenVersionRegistry).
+     */
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion;
+
     /**
      * Создает пользователя с указанными email, паролем и ролью.
      *
@@ -0,0 +1,24 @@
+package ru.mzuev.taskmanagementsystem.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Издатель для слушателей внутри приложения: каждое событие публикуется как {@link OutboxMessage}
+ * и доступно через {@code @EventListener}. Слушатели вызываются в транзакции ретранслятора;
+ * исключение слушателя приводит к повторной доставке всей порции.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationEventOutboxPublisher implements OutboxPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        messages.forEach(eventPublisher::publishEvent);
+    }
+}
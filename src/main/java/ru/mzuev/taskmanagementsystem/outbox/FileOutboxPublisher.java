@@ -0,0 +1,51 @@
+package ru.mzuev.taskmanagementsystem.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Издатель, дописывающий события в локальный файл в формате NDJSON. Заменяет внешнюю очередь сообщений
+ * при локальной разработке; включается настройкой outbox.file.path.
+ */
+@Component
+@ConditionalOnProperty("outbox.file.path")
+public class FileOutboxPublisher implements OutboxPublisher {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    /**
+     * Создает издателя.
+     *
+     * @param objectMapper Jackson-маппер приложения.
+     * @param path Путь к файлу событий.
+     */
+    public FileOutboxPublisher(ObjectMapper objectMapper, @Value("${outbox.file.path}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxMessage message : messages) {
+                writer.write(objectMapper.writeValueAsString(message));
+                writer.newLine();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
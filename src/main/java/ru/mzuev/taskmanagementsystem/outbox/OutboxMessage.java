@@ -0,0 +1,24 @@
+package ru.mzuev.taskmanagementsystem.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие из outbox, передаваемое издателям. Доставка выполняется не менее одного раза, поэтому
+ * получатели должны быть идемпотентны (например, по идентификатору события).
+ *
+ * @param id            Идентификатор события; возрастает в порядке записи.
+ * @param aggregateType Тип агрегата, к которому относится событие.
+ * @param aggregateId   Идентификатор агрегата.
+ * @param eventType     Тип события.
+ * @param payload       Содержимое события в формате JSON.
+ * @param createdAt     Время записи события.
+ */
+public record OutboxMessage(Long id,
+                            String aggregateType,
+                            Long aggregateId,
+                            String eventType,
+                            @JsonRawValue String payload,
+                            LocalDateTime createdAt) {
+}
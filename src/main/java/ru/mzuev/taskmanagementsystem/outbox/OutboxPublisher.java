@@ -0,0 +1,17 @@
+package ru.mzuev.taskmanagementsystem.outbox;
+
+import java.util.List;
+
+/**
+ * Получатель событий из outbox. Ретранслятор передает порцию событий всем зарегистрированным издателям;
+ * если издатель выбрасывает исключение, порция остается в outbox и будет передана повторно.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Публикует порцию событий. События одного агрегата передаются в порядке записи.
+     *
+     * @param messages События в порядке идентификаторов.
+     */
+    void publish(List<OutboxMessage> messages);
+}
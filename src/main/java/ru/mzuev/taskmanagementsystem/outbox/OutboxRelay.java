@@ -0,0 +1,146 @@
+package ru.mzuev.taskmanagementsystem.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Ретранслятор outbox: в фоновом потоке забирает порции событий, передает их издателям и удаляет
+ * опубликованные события в той же транзакции. Выборка выполняется с FOR UPDATE SKIP LOCKED, поэтому
+ * несколько экземпляров приложения разбирают outbox параллельно, не мешая друг другу. Порядок событий
+ * одной задачи сохраняется: в порцию попадает только самое раннее неопубликованное событие каждой задачи,
+ * следующее становится доступным после коммита предыдущего.
+ */
+@Slf4j
+@Component
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final String CLAIM = "select o.id, o.aggregate_type, o.aggregate_id, o.event_type, o.payload, o.created_at "
+            + "from outbox_events o "
+            + "where not exists (select 1 from outbox_events p "
+            + "where p.aggregate_type = o.aggregate_type and p.aggregate_id = o.aggregate_id and p.id < o.id) "
+            + "order by o.id "
+            + "limit ? "
+            + "for update skip locked";
+
+    private static final String DELETE = "delete from outbox_events where id = ?";
+
+    private static final RowMapper<OutboxMessage> MESSAGE_MAPPER = (resultSet, rowNum) -> new OutboxMessage(
+            resultSet.getLong("id"),
+            resultSet.getString("aggregate_type"),
+            resultSet.getLong("aggregate_id"),
+            resultSet.getString("event_type"),
+            resultSet.getString("payload"),
+            resultSet.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxPublisher> publishers;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pollIntervalMs;
+
+    private volatile boolean running;
+    private Thread relayThread;
+
+    /**
+     * Создает ретранслятор.
+     *
+     * @param jdbcTemplate JdbcTemplate для работы с таблицей outbox.
+     * @param transactionManager Менеджер транзакций.
+     * @param publishers Издатели событий.
+     * @param enabled Включена ли фоновая ретрансляция.
+     * @param batchSize Максимальное количество событий в одной транзакции.
+     * @param pollInterval Пауза между опросами, когда outbox пуст.
+     */
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       List<OutboxPublisher> publishers,
+                       @Value("${outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.poll-interval:1s}") Duration pollInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishers = publishers;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollInterval.toMillis();
+    }
+
+    /**
+     * Публикует одну порцию событий и удаляет ее из outbox.
+     *
+     * @return Количество опубликованных событий.
+     */
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxMessage> messages = jdbcTemplate.query(CLAIM, MESSAGE_MAPPER, batchSize);
+            if (messages.isEmpty()) {
+                return 0;
+            }
+            for (OutboxPublisher publisher : publishers) {
+                publisher.publish(messages);
+            }
+            jdbcTemplate.batchUpdate(DELETE, messages.stream().map(message -> new Object[]{message.id()}).toList());
+            return messages.size();
+        });
+        return relayed != null ? relayed : 0;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        relayThread = new Thread(this::relay, "outbox-relay");
+        relayThread.setDaemon(true);
+        relayThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (relayThread != null) {
+            relayThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void relay() {
+        while (running) {
+            try {
+                // Пока есть события, порции забираются без паузы
+                if (relayBatch() == 0) {
+                    sleep();
+                }
+            } catch (RuntimeException ex) {
+                if (running) {
+                    log.warn("Не удалось опубликовать события outbox, повтор через {} мс", pollIntervalMs, ex);
+                    sleep();
+                }
+            }
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.mzuev.taskmanagementsystem.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.mzuev.taskmanagementsystem.event.TaskChangeEvent;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Записывает события изменения задач в outbox в текущей транзакции: событие сохраняется тогда и только
+ * тогда, когда коммитится само изменение. Одиночные события приходят из сервисов через
+ * {@link TaskChangeEvent}, массовые операции записывают события пакетом через {@link #appendAll(Collection)}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    /**
+     * Тип агрегата для событий задач (включая комментарии к задаче).
+     */
+    public static final String TASK_AGGREGATE = "Task";
+
+    private static final String INSERT = "insert into outbox_events "
+            + "(aggregate_type, aggregate_id, event_type, payload, created_at) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Записывает событие, опубликованное сервисом, в транзакции публикации.
+     *
+     * @param event Событие изменения задачи.
+     */
+    @EventListener
+    public void onTaskChange(TaskChangeEvent event) {
+        appendAll(List.of(event));
+    }
+
+    /**
+     * Записывает события одним JDBC-пакетом в текущей транзакции.
+     *
+     * @param events События изменения задач.
+     */
+    public void appendAll(Collection<TaskChangeEvent> events) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (TaskChangeEvent event : events) {
+            rows.add(new Object[]{TASK_AGGREGATE, event.taskId(), event.type().name(), toJson(event), createdAt});
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    private String toJson(TaskChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + event, ex);
+        }
+    }
+}
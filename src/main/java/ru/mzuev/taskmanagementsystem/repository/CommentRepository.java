@@ -1,9 +1,19 @@
 package ru.mzuev.taskmanagementsystem.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import ru.mzuev.taskmanagementsystem.dto.CommentDTO;
 import ru.mzuev.taskmanagementsystem.model.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с комментариями. Поддерживает пагинацию при поиске комментариев по задаче.
@@ -18,4 +28,61 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      * @return Страница комментариев.
      */
     Page<Comment> findByTaskId(Long taskId, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Возвращает страницу комментариев для указанной задачи сразу в виде DTO, без загрузки управляемых сущностей.
+     *
+     * @param taskId   Идентификатор задачи.
+     * @param pageable Параметры пагинации (номер страницы, размер, сортировка).
+     * @return Страница комментариев в формате DTO.
+     */
+    @Query(value = "select new ru.mzuev.taskmanagementsystem.dto.CommentDTO(c.id, c.content, c.createdAt, c.task.id, c.user.id) "
+            + "from Comment c where c.task.id = :taskId",
+            countQuery = "select count(c) from Comment c where c.task.id = :taskId")
+    Page<CommentDTO> findDTOByTaskId(Long taskId, Pageable pageable);
+
+    /**
+     * Возвращает первый срез комментариев задачи для keyset-пагинации в порядке создания.
+     *
+     * @param taskId Идентификатор задачи.
+     * @param limit  Максимальное количество комментариев.
+     * @return Комментарии в формате DTO.
+     */
+    @Query("select new ru.mzuev.taskmanagementsystem.dto.CommentDTO(c.id, c.content, c.createdAt, c.task.id, c.user.id) "
+            + "from Comment c where c.task.id = :taskId order by c.createdAt, c.id")
+    List<CommentDTO> findDTOByTaskIdFirst(Long taskId, Limit limit);
+
+    /**
+     * Возвращает срез комментариев задачи, следующих за указанным ключом (дата создания, идентификатор).
+     *
+     * @param taskId    Идентификатор задачи.
+     * @param createdAt Дата создания последнего комментария предыдущего среза.
+     * @param id        Идентификатор последнего комментария предыдущего среза.
+     * @param limit     Максимальное количество комментариев.
+     * @return Комментарии в формате DTO.
+     */
+    @Query("select new ru.mzuev.taskmanagementsystem.dto.CommentDTO(c.id, c.content, c.createdAt, c.task.id, c.user.id) "
+            + "from Comment c where c.task.id = :taskId and (c.createdAt, c.id) > (:createdAt, :id) "
+            + "order by c.createdAt, c.id")
+    List<CommentDTO> findDTOByTaskIdAfter(Long taskId, LocalDateTime createdAt, Long id, Limit limit);
+
+    /**
+     * Возвращает комментарии задач, выбранных фильтром, потоком в виде DTO для выгрузки.
+     * Порядок по задаче совпадает с {@link TaskRepository#streamDTOByFilter(Long, Long)}, что позволяет
+     * сопоставить оба потока за один проход. Поток должен быть прочитан и закрыт внутри транзакции.
+     *
+     * @param authorId   Идентификатор автора задачи.
+     * @param executorId Идентификатор исполнителя задачи.
+     * @return Поток комментариев в формате DTO, упорядоченных по задаче и времени создания.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TaskRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new ru.mzuev.taskmanagementsystem.dto.CommentDTO(c.id, c.content, c.createdAt, c.task.id, c.user.id) "
+            + "from Comment c "
+            + "where (:authorId is null or c.task.author.id = :authorId) "
+            + "and (:executorId is null or c.task.executor.id = :executorId) "
+            + "order by c.task.id, c.createdAt, c.id")
+    Stream<CommentDTO> streamDTOByTaskFilter(Long authorId, Long executorId);
+}
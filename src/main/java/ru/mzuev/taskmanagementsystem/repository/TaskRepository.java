@@ -1,15 +1,32 @@
 package ru.mzuev.taskmanagementsystem.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
 import ru.mzuev.taskmanagementsystem.model.Task;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
- * Репозиторий для работы с задачами. Поддерживает поиск по автору, исполнителю и проверку уникальности названия.
+ * Репозиторий для работы с задачами. Поддерживает поиск по автору, исполнителю и названиям задач.
  */
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
+    /**
+     * Количество строк, получаемых драйвером за одно обращение к серверу при потоковой выгрузке.
+     */
+    String EXPORT_FETCH_SIZE = "1000";
+
     /**
      * Возвращает страницу задач по автору.
      *
@@ -29,10 +46,158 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     Page<Task> findByExecutorId(Long executorId, Pageable pageable);
 
     /**
-     * Проверяет существование задачи с указанным названием.
+     * Возвращает страницу задач по автору сразу в виде DTO, без загрузки управляемых сущностей.
      *
-     * @param title Название задачи.
-     * @return true, если задача существует, иначе false.
+     * @param authorId Идентификатор автора.
+     * @param pageable Параметры пагинации.
+     * @return Страница задач в формате DTO.
      */
-    boolean existsByTitle(String title);
-}
\ No newline at end of file
+    @Query(value = "select new ru.mzuev.taskmanagementsystem.dto.TaskDTO("
+            + "t.id, t.title, t.description, t.status, t.priority, t.author.id, t.executor.id) "
+            + "from Task t where t.author.id = :authorId",
+            countQuery = "select count(t) from Task t where t.author.id = :authorId")
+    Page<TaskDTO> findDTOByAuthorId(Long authorId, Pageable pageable);
+
+    /**
+     * Возвращает страницу задач по исполнителю сразу в виде DTO, без загрузки управляемых сущностей.
+     *
+     * @param executorId Идентификатор исполнителя.
+     * @param pageable   Параметры пагинации.
+     * @return Страница задач в формате DTO.
+     */
+    @Query(value = "select new ru.mzuev.taskmanagementsystem.dto.TaskDTO("
+            + "t.id, t.title, t.description, t.status, t.priority, t.author.id, t.executor.id) "
+            + "from Task t where t.executor.id = :executorId",
+            countQuery = "select count(t) from Task t where t.executor.id = :executorId")
+    Page<TaskDTO> findDTOByExecutorId(Long executorId, Pageable pageable);
+
+    /**
+     * Возвращает срез задач автора с идентификатором больше указанного (keyset-пагинация).
+     *
+     * @param authorId Идентификатор автора.
+     * @param afterId  Идентификатор последней задачи предыдущего среза (0 для первого среза).
+     * @param limit    Максимальное количество задач.
+     * @return Задачи в формате DTO, упорядоченные по идентификатору.
+     */
+    @Query("select new ru.mzuev.taskmanagementsystem.dto.TaskDTO("
+            + "t.id, t.title, t.description, t.status, t.priority, t.author.id, t.executor.id) "
+            + "from Task t where t.author.id = :authorId and t.id > :afterId order by t.id")
+    List<TaskDTO> findDTOByAuthorIdAfter(Long authorId, Long afterId, Limit limit);
+
+    /**
+     * Возвращает срез задач исполнителя с идентификатором больше указанного (keyset-пагинация).
+     *
+     * @param executorId Идентификатор исполнителя.
+     * @param afterId    Идентификатор последней задачи предыдущего среза (0 для первого среза).
+     * @param limit      Максимальное количество задач.
+     * @return Задачи в формате DTO, упорядоченные по идентификатору.
+     */
+    @Query("select new ru.mzuev.taskmanagementsystem.dto.TaskDTO("
+            + "t.id, t.title, t.description, t.status, t.priority, t.author.id, t.executor.id) "
+            + "from Task t where t.executor.id = :executorId and t.id > :afterId order by t.id")
+    List<TaskDTO> findDTOByExecutorIdAfter(Long executorId, Long afterId, Limit limit);
+
+    /**
+     * Возвращает задачи по фильтру потоком в виде DTO для выгрузки. Условия со значением null не применяются.
+     * Строки читаются серверным курсором порциями по {@link #EXPORT_FETCH_SIZE}; поток должен быть
+     * прочитан и закрыт внутри транзакции.
+     *
+     * @param authorId   Идентификатор автора.
+     * @param executorId Идентификатор исполнителя.
+     * @return Поток задач в формате DTO, упорядоченных по идентификатору.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new ru.mzuev.taskmanagementsystem.dto.TaskDTO("
+            + "t.id, t.title, t.description, t.status, t.priority, t.author.id, t.executor.id) "
+            + "from Task t "
+            + "where (:authorId is null or t.author.id = :authorId) "
+            + "and (:executorId is null or t.executor.id = :executorId) "
+            + "order by t.id")
+    Stream<TaskDTO> streamDTOByFilter(Long authorId, Long executorId);
+
+    /**
+     * Находит задачи по списку названий одним запросом (используется при массовом импорте).
+     *
+     * @param titles Названия задач.
+     * @return Список найденных задач.
+     */
+    List<Task> findByTitleIn(Collection<String> titles);
+
+    /**
+     * Проверяет, является ли пользователь с указанным email исполнителем задачи.
+     * Выполняется одним запросом без загрузки задачи и связанных пользователей.
+     *
+     * @param id    Идентификатор задачи.
+     * @param email Email исполнителя.
+     * @return true, если пользователь является исполнителем задачи.
+     */
+    boolean existsByIdAndExecutorEmail(Long id, String email);
+
+    /**
+     * Блокирует задачи до конца транзакции и возвращает их текущих автора, исполнителя и статус
+     * (для проверки прав и фильтра массового обновления): пока статус не обновлен, задачу нельзя
+     * переназначить, изменить или удалить. Запрос нативный, так как блокировку в JPQL диалект PostgreSQL
+     * формирует как FOR NO KEY UPDATE, который не поддерживает тестовая H2.
+     *
+     * @param ids Идентификаторы задач.
+     * @return Найденные задачи; отсутствующие идентификаторы в результат не попадают.
+     */
+    @Query(value = "select t.id as id, t.author_id as authorId, t.executor_id as executorId, t.status as status "
+            + "from tasks t where t.id in (:ids) order by t.id for update", nativeQuery = true)
+    List<LockedTask> lockByIdIn(Collection<Long> ids);
+
+    /**
+     * Находит идентификаторы задач по фильтру. Условия со значением null не применяются.
+     *
+     * @param authorId       Идентификатор автора.
+     * @param executorId     Идентификатор исполнителя.
+     * @param status         Текущий статус.
+     * @param executorUserId Идентификатор пользователя (ограничивает выборку задачами, где он исполнитель).
+     * @param limit          Максимальное количество идентификаторов.
+     * @return Идентификаторы задач в порядке возрастания.
+     */
+    @Query("select t.id from Task t "
+            + "where (:authorId is null or t.author.id = :authorId) "
+            + "and (:executorId is null or t.executor.id = :executorId) "
+            + "and (:status is null or t.status = :status) "
+            + "and (:executorUserId is null or t.executor.id = :executorUserId) "
+            + "order by t.id")
+    List<Long> findIdsByFilter(Long authorId, Long executorId, String status, Long executorUserId, Limit limit);
+
+    /**
+     * Возвращает версию задачи без загрузки сущности (для проверки условных запросов).
+     *
+     * @param id Идентификатор задачи.
+     * @return Версия задачи или пустое значение, если задача не найдена.
+     */
+    @Query("select t.version from Task t where t.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /**
+     * Обновляет статус задач одним запросом без загрузки сущностей. Версия задач увеличивается,
+     * чтобы выданные ранее ETag перестали совпадать.
+     *
+     * @param ids    Идентификаторы задач.
+     * @param status Новый статус.
+     * @return Количество обновленных строк.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.status = :status, t.version = t.version + 1 where t.id in :ids")
+    int updateStatusByIdIn(Collection<Long> ids, String status);
+
+    /**
+     * Заблокированная задача с полями, по которым проверяются права и фильтр массового обновления.
+     */
+    interface LockedTask {
+        Long getId();
+
+        Long getAuthorId();
+
+        Long getExecutorId();
+
+        String getStatus();
+    }
+}
@@ -0,0 +1,170 @@
+package ru.mzuev.taskmanagementsystem.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.dto.TaskSearchRequest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Полнотекстовый поиск задач по названию, описанию и комментариям с ранжированием и keyset-пагинацией
+ * по паре (релевантность, идентификатор).
+ * На PostgreSQL запрос использует столбец tasks.search_vector с GIN-индексом (миграция V6): слова запроса
+ * ищутся как префиксы с учетом морфологии, релевантность считает ts_rank с весами название > описание > комментарии.
+ * Без PostgreSQL (H2 в тестах) используется переносимый поиск подстрок через LIKE с теми же весами;
+ * он не использует индексов и предназначен только для тестов.
+ */
+@Repository
+@Timed(value = "repository.invocations", histogram = true)
+public class TaskSearchRepository {
+
+    /**
+     * Максимальное количество слов запроса, учитываемых при поиске.
+     */
+    public static final int MAX_TERMS = 10;
+
+    // Конфигурация полнотекстового поиска PostgreSQL, должна совпадать с миграцией V6
+    private static final String TEXT_SEARCH_CONFIG = "russian";
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final String TASK_COLUMNS = "t.id, t.title, t.description, t.status, t.priority, t.author_id, t.executor_id";
+
+    private static final RowMapper<Hit> HIT_MAPPER = (resultSet, rowNum) -> new Hit(
+            new TaskDTO(
+                    resultSet.getLong("id"),
+                    resultSet.getString("title"),
+                    resultSet.getString("description"),
+                    resultSet.getString("status"),
+                    resultSet.getString("priority"),
+                    resultSet.getLong("author_id"),
+                    resultSet.getObject("executor_id", Long.class)),
+            resultSet.getFloat("rank"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean fullText;
+
+    /**
+     * Создает репозиторий.
+     *
+     * @param jdbcTemplate JdbcTemplate с именованными параметрами.
+     * @param fullText Использовать ли полнотекстовый поиск PostgreSQL (требует миграции V6 на PostgreSQL).
+     */
+    public TaskSearchRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                @Value("${tasks.search.full-text:false}") boolean fullText) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fullText = fullText;
+    }
+
+    /**
+     * Разбивает строку запроса на слова: буквы и цифры в нижнем регистре, остальные символы считаются
+     * разделителями. Учитываются первые {@link #MAX_TERMS} слов.
+     *
+     * @param query Строка запроса.
+     * @return Слова запроса.
+     */
+    public static List<String> terms(String query) {
+        return Arrays.stream(NON_WORD.split(query.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .toList();
+    }
+
+    /**
+     * Ищет задачи, содержащие все слова запроса, в порядке убывания релевантности.
+     *
+     * @param terms Слова запроса (непустой список, см. {@link #terms(String)}).
+     * @param filter Фильтры по статусу, приоритету и исполнителю (строка запроса не используется).
+     * @param executorEmail Email исполнителя, которым ограничивается выборка, или null без ограничения.
+     * @param afterRank Релевантность последней задачи предыдущего среза или null для первого среза.
+     * @param afterId Идентификатор последней задачи предыдущего среза.
+     * @param limit Максимальное количество задач.
+     * @return Найденные задачи с релевантностью.
+     */
+    public List<Hit> search(List<String> terms, TaskSearchRequest filter, String executorEmail,
+                            Float afterRank, long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("select * from (");
+        if (fullText) {
+            appendFullTextMatch(sql, params, terms);
+        } else {
+            appendLikeMatch(sql, params, terms);
+        }
+        if (filter.getStatus() != null) {
+            sql.append(" and t.status = :status");
+            params.addValue("status", filter.getStatus());
+        }
+        if (filter.getPriority() != null) {
+            sql.append(" and t.priority = :priority");
+            params.addValue("priority", filter.getPriority());
+        }
+        if (filter.getExecutorId() != null) {
+            sql.append(" and t.executor_id = :executorId");
+            params.addValue("executorId", filter.getExecutorId());
+        }
+        if (executorEmail != null) {
+            sql.append(" and t.executor_id = (select u.id from users u where u.email = :executorEmail)");
+            params.addValue("executorEmail", executorEmail);
+        }
+        sql.append(") r");
+        if (afterRank != null) {
+            sql.append(" where r.rank < cast(:afterRank as real) or (r.rank = cast(:afterRank as real) and r.id > :afterId)");
+            params.addValue("afterRank", afterRank);
+            params.addValue("afterId", afterId);
+        }
+        sql.append(" order by r.rank desc, r.id limit :limit");
+        params.addValue("limit", limit);
+        return jdbcTemplate.query(sql.toString(), params, HIT_MAPPER);
+    }
+
+    /**
+     * Условие полнотекстового поиска PostgreSQL: все слова запроса как префиксы (слово:*), объединенные через &.
+     */
+    private static void appendFullTextMatch(StringBuilder sql, MapSqlParameterSource params, List<String> terms) {
+        sql.append("select ").append(TASK_COLUMNS).append(", ts_rank(t.search_vector, query) as rank")
+                .append(" from tasks t, to_tsquery('").append(TEXT_SEARCH_CONFIG).append("', :query) query")
+                .append(" where t.search_vector @@ query");
+        params.addValue("query", String.join(" & ", terms.stream().map(term -> term + ":*").toList()));
+    }
+
+    /**
+     * Переносимое условие поиска: каждое слово запроса встречается как подстрока в названии, описании
+     * или комментариях. Релевантность — сумма весов полей, в которых найдено слово.
+     */
+    private static void appendLikeMatch(StringBuilder sql, MapSqlParameterSource params, List<String> terms) {
+        StringBuilder rank = new StringBuilder();
+        StringBuilder match = new StringBuilder();
+        for (int i = 0; i < terms.size(); i++) {
+            String param = ":term" + i;
+            String inComments = "exists (select 1 from comments c where c.task_id = t.id and lower(c.content) like " + param + ")";
+            rank.append(i > 0 ? " + " : "")
+                    .append("case when lower(t.title) like ").append(param).append(" then 1.0 else 0 end")
+                    .append(" + case when lower(coalesce(t.description, '')) like ").append(param).append(" then 0.4 else 0 end")
+                    .append(" + case when ").append(inComments).append(" then 0.2 else 0 end");
+            match.append(i > 0 ? " and " : "")
+                    .append("(lower(t.title) like ").append(param)
+                    .append(" or lower(coalesce(t.description, '')) like ").append(param)
+                    .append(" or ").append(inComments).append(")");
+            params.addValue("term" + i, "%" + terms.get(i) + "%");
+        }
+        sql.append("select ").append(TASK_COLUMNS).append(", cast(").append(rank).append(" as real) as rank")
+                .append(" from tasks t where ").append(match);
+    }
+
+    /**
+     * Найденная задача с релевантностью.
+     *
+     * @param task Задача.
+     * @param rank Релевантность (чем больше, тем выше в выдаче).
+     */
+    public record Hit(TaskDTO task, float rank) {
+    }
+}
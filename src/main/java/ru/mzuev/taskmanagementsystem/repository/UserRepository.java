@@ -1,11 +1,16 @@
 package ru.mzuev.taskmanagementsystem.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import ru.mzuev.taskmanagementsystem.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Репозиторий для работы с пользователями. Поддерживает поиск по email.
+ * Поиск по email и проверка существования используют кеш запросов Hibernate.
  */
 public interface UserRepository extends JpaRepository<User, Long> {
     /**
@@ -14,5 +19,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param email Email пользователя.
      * @return Optional с пользователем, если найден.
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Проверяет существование пользователя по идентификатору.
+     *
+     * @param id Идентификатор пользователя.
+     * @return true, если пользователь существует.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    boolean existsById(Long id);
+
+    /**
+     * Находит пользователей, чьи токены отзывались (версия токенов выше заданной).
+     *
+     * @param tokenVersion Нижняя граница версии, не включительно.
+     * @return Список пользователей.
+     */
+    List<User> findByTokenVersionGreaterThan(long tokenVersion);
+}
@@ -0,0 +1,69 @@
+package ru.mzuev.taskmanagementsystem.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики аутентификации: счетчики успешных и неуспешных входов по паролю (auth.login)
+ * и время разбора JWT-токенов в фильтре (auth.token.parse) с разбивкой по результату.
+ * Количество принятых и отклоненных токенов — счетчик соответствующего таймера.
+ */
+@Component
+public class AuthMetrics {
+
+    private static final String RESULT_TAG = "result";
+
+    private final Counter loginSuccess;
+    private final Counter loginFailure;
+    private final Timer tokenValid;
+    private final Timer tokenInvalid;
+
+    /**
+     * Создает метрики и регистрирует их в реестре.
+     *
+     * @param meterRegistry Реестр метрик.
+     */
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.loginSuccess = Counter.builder("auth.login").tag(RESULT_TAG, "success")
+                .description("Входы по email и паролю").register(meterRegistry);
+        this.loginFailure = Counter.builder("auth.login").tag(RESULT_TAG, "failure")
+                .description("Входы по email и паролю").register(meterRegistry);
+        this.tokenValid = tokenTimer(meterRegistry, "valid");
+        this.tokenInvalid = tokenTimer(meterRegistry, "invalid");
+    }
+
+    /**
+     * Учитывает успешный вход.
+     */
+    public void loginSucceeded() {
+        loginSuccess.increment();
+    }
+
+    /**
+     * Учитывает вход с неверными учетными данными.
+     */
+    public void loginFailed() {
+        loginFailure.increment();
+    }
+
+    /**
+     * Учитывает разбор токена.
+     *
+     * @param startNanos Значение System.nanoTime() перед разбором.
+     * @param valid Принят ли токен.
+     */
+    public void tokenParsed(long startNanos, boolean valid) {
+        (valid ? tokenValid : tokenInvalid).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer tokenTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("auth.token.parse").tag(RESULT_TAG, result)
+                .description("Проверка подписи и разбор JWT-токена")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -18,6 +18,7 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     /**
      * Загружает пользователя по email для аутентификации.
@@ -36,4 +37,24 @@ public class CustomUserDetailsService implements UserDetailsService {
                 Collections.singleton(new SimpleGrantedAuthority(user.getRole()))
         );
     }
+
+    /**
+     * Загружает пользователя по email через кеш {@link PrincipalCache}. Используется при проверке JWT,
+     * где пароль не нужен, поэтому в кеше хранится пользователь без хеша пароля.
+     *
+     * @param email Email пользователя.
+     * @return Объект UserDetails с данными пользователя.
+     * @throws UsernameNotFoundException Если пользователь не найден.
+     */
+    public UserDetails loadCachedUserByUsername(String email) throws UsernameNotFoundException {
+        return principalCache.get(email, key -> {
+            User user = userRepository.findByEmail(key)
+                    .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден с email: " + key));
+            return new org.springframework.security.core.userdetails.User(
+                    user.getEmail(),
+                    "",
+                    Collections.singleton(new SimpleGrantedAuthority(user.getRole()))
+            );
+        });
+    }
 }
\ No newline at end of file
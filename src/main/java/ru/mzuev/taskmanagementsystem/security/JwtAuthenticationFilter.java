@@ -1,29 +1,62 @@
 package ru.mzuev.taskmanagementsystem.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 /**
  * Фильтр, который перехватывает каждый HTTP-запрос, извлекает JWT-токен из заголовка Authorization,
- * проверяет его валидность и устанавливает аутентификацию в контекст Spring Security, если токен корректный
+ * проверяет его валидность и устанавливает аутентификацию в контекст Spring Security, если токен корректный.
+ * В stateless-режиме данные пользователя берутся из claims токена без обращения к БД.
  */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * Атрибут запроса с идентификатором аутентифицированного пользователя (для журнала HTTP-запросов).
+     */
+    public static final String USER_ID_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".userId";
+
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final AuthMetrics authMetrics;
+    private final boolean statelessEnabled;
+
+    /**
+     * Создает фильтр.
+     *
+     * @param jwtUtil Утилита для работы с JWT.
+     * @param userDetailsService Сервис загрузки пользователей.
+     * @param tokenVersionRegistry Реестр версий токенов.
+     * @param authMetrics Метрики аутентификации.
+     * @param statelessEnabled Включен ли stateless-режим аутентификации.
+     */
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   CustomUserDetailsService userDetailsService,
+                                   TokenVersionRegistry tokenVersionRegistry,
+                                   AuthMetrics authMetrics,
+                                   @Value("${jwt.stateless.enabled:false}") boolean statelessEnabled) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.authMetrics = authMetrics;
+        this.statelessEnabled = statelessEnabled;
+    }
 
     /**
      * Обрабатывает каждый HTTP-запрос для проверки JWT.
@@ -40,31 +73,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         // Извлекаем заголовок Authorization
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String email = null;
+        Claims claims = null;
 
-        // Если заголовок начинается с "Bearer ", извлекаем сам токен
+        // Если заголовок начинается с "Bearer ", извлекаем сам токен и проверяем его за один разбор
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            if (jwtUtil.validateToken(token)) {
-                // Извлекаем email пользователя из токена
-                email = jwtUtil.extractEmail(token);
-            }
+            String token = authHeader.substring(7);
+            long start = System.nanoTime();
+            claims = jwtUtil.parseClaims(token).orElse(null);
+            authMetrics.tokenParsed(start, claims != null);
         }
 
-        // Если email получен и аутентификация еще не установлена
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Загружаем пользователя из базы данных
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-            // Создаем объект аутентификации
-            UsernamePasswordAuthenticationToken authenticationToken =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-            authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            // Устанавливаем аутентификацию в контекст безопасности
-            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        // Если токен валиден и аутентификация еще не установлена
+        if (claims != null && claims.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = statelessEnabled
+                    ? fromClaims(claims)
+                    : userDetailsService.loadCachedUserByUsername(claims.getSubject());
+            if (userDetails != null) {
+                // Создаем объект аутентификации
+                UsernamePasswordAuthenticationToken authenticationToken =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                // Устанавливаем аутентификацию в контекст безопасности
+                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                request.setAttribute(USER_ID_ATTRIBUTE, claims.get(JwtUtil.USER_ID_CLAIM, Long.class));
+            }
         }
 
         // Продолжаем цепочку фильтров
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Строит данные пользователя из claims токена. Токены без идентификатора пользователя, роли или версии,
+     * а также отозванные токены не принимаются.
+     *
+     * @param claims Claims проверенного токена.
+     * @return Данные пользователя или null, если токен не подходит для stateless-режима.
+     */
+    private UserDetails fromClaims(Claims claims) {
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        Long version = claims.get(JwtUtil.VERSION_CLAIM, Long.class);
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+        if (userId == null || version == null || role == null || !tokenVersionRegistry.isCurrent(userId, version)) {
+            return null;
+        }
+        return new User(claims.getSubject(), "", Collections.singleton(new SimpleGrantedAuthority(role)));
+    }
+}
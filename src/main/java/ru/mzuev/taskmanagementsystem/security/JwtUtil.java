@@ -1,58 +1,153 @@
 package ru.mzuev.taskmanagementsystem.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Утилита для работы с JWT-токенами: генерация, валидация, извлечение данных.
+ * Ключ и парсер создаются один раз, а уже проверенные токены кешируются до истечения их срока действия,
+ * поэтому повторные запросы с тем же токеном не требуют проверки подписи.
  */
 @Component
 public class JwtUtil {
 
-    // Секретный ключ для подписи JWT
-    @Value("${jwt.secret}")
-    private String secret;
+    // Имена claims с идентификатором пользователя, ролью и версией токена
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String VERSION_CLAIM = "ver";
+
+    // Ключ для подписи и проверки JWT
+    private final SecretKey key;
+
+    // Неизменяемый парсер, переиспользуемый всеми запросами
+    private final JwtParser parser;
 
     // Время жизни токена в миллисекундах
-    @Value("${jwt.expiration}")
-    private long jwtExpirationInMs;
+    private final long jwtExpirationInMs;
+
+    // Реестр версий токенов для отзыва
+    private final TokenVersionRegistry tokenVersionRegistry;
+
+    // Кеш проверенных токенов: хеш токена -> claims, запись живет до истечения токена
+    private final Cache<String, Claims> verifiedTokens;
+
+    /**
+     * Создает утилиту с заданными параметрами.
+     *
+     * @param secret Секретный ключ для подписи JWT.
+     * @param jwtExpirationInMs Время жизни токена в миллисекундах.
+     * @param statelessEnabled Включен ли stateless-режим аутентификации.
+     * @param statelessExpirationInMs Время жизни токена в stateless-режиме (короче обычного).
+     * @param cacheMaximumSize Максимальное количество проверенных токенов в кеше.
+     * @param tokenVersionRegistry Реестр версий токенов.
+     */
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") long jwtExpirationInMs,
+                   @Value("${jwt.stateless.enabled:false}") boolean statelessEnabled,
+                   @Value("${jwt.stateless.expiration:900000}") long statelessExpirationInMs,
+                   @Value("${jwt.verified-cache.maximum-size:10000}") long cacheMaximumSize,
+                   TokenVersionRegistry tokenVersionRegistry) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.jwtExpirationInMs = statelessEnabled ? statelessExpirationInMs : jwtExpirationInMs;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, Claims claims, long currentTime) {
+                        long ttlMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMs, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
 
     /**
-     * Генерирует JWT-токен для пользователя.
+     * Генерирует JWT-токен для пользователя. Помимо email и роли токен содержит идентификатор
+     * пользователя и текущую версию его токенов, что позволяет аутентифицировать запрос без обращения к БД.
      *
+     * @param userId Идентификатор пользователя.
      * @param email Email пользователя.
      * @param role Роль пользователя.
      * @return Сгенерированный токен.
      */
-    public String generateToken(String email, String role) {
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
+    public String generateToken(Long userId, String email, String role) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .setSubject(email)
-                .claim("role", role)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMs))
-                .signWith(key, SignatureAlgorithm.HS256)
+                .subject(email)
+                .claim(ROLE_CLAIM, role)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(VERSION_CLAIM, tokenVersionRegistry.currentVersion(userId))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + jwtExpirationInMs))
+                .signWith(key, Jwts.SIG.HS256)
                 .compact();
     }
 
+    /**
+     * Проверяет токен и возвращает его claims. Токен разбирается и проверяется не более одного раза
+     * за время его жизни, последующие вызовы берут результат из кеша.
+     *
+     * @param token JWT-токен.
+     * @return Claims проверенного токена или пустой Optional, если токен невалиден.
+     */
+    public Optional<Claims> parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        String tokenHash = hash(token);
+        Claims cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(tokenHash, claims);
+            }
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException ex) {
+            // Позже добавить сюда логгирование
+            return Optional.empty();
+        }
+    }
+
     /**
      * Извлекает email из токена.
      *
      * @param token JWT-токен.
      * @return Email пользователя.
+     * @throws JwtException Если токен невалиден.
      */
     public String extractEmail(String token) {
-        return Jwts.parser()
-                .setSigningKey(secret.getBytes())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Невалидный JWT-токен"));
     }
 
     /**
@@ -62,15 +157,15 @@ public class JwtUtil {
      * @return true, если токен валиден, иначе false.
      */
     public boolean validateToken(String token) {
+        return parseClaims(token).isPresent();
+    }
+
+    private static String hash(String token) {
         try {
-            Jwts.parser()
-                    .setSigningKey(secret.getBytes())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException ex) {
-            // Позже добавить сюда логгирование
-            return false;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 недоступен", ex);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package ru.mzuev.taskmanagementsystem.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Совпадает с запросами, пришедшими на отдельный порт Actuator (management.server.port).
+ * Порт запоминается при запуске сервера Actuator, поэтому работает и со случайным портом в тестах.
+ * Если Actuator обслуживается на порту приложения, не совпадает ни с одним запросом.
+ */
+@Component
+public class ManagementPortRequestMatcher implements RequestMatcher, ApplicationListener<WebServerInitializedEvent> {
+
+    private static final String MANAGEMENT_NAMESPACE = "management";
+
+    private volatile int managementPort = -1;
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        if (MANAGEMENT_NAMESPACE.equals(event.getApplicationContext().getServerNamespace())) {
+            managementPort = event.getWebServer().getPort();
+        }
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return request.getLocalPort() == managementPort;
+    }
+}
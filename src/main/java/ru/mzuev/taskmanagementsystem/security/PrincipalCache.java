@@ -0,0 +1,71 @@
+package ru.mzuev.taskmanagementsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Ограниченный по размеру кеш аутентифицированных пользователей с вытеснением по времени жизни.
+ * Позволяет не обращаться к таблице users при каждом запросе с JWT-токеном. Попадания, промахи и вытеснения
+ * публикуются в метриках cache.* с тегом cache=principal для подбора размера кеша.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    /**
+     * Создает кеш с заданными ограничениями.
+     *
+     * @param maximumSize Максимальное количество пользователей в кеше.
+     * @param ttl Время жизни записи после загрузки.
+     * @param meterRegistry Реестр метрик.
+     */
+    public PrincipalCache(@Value("${security.principal-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${security.principal-cache.ttl:5m}") Duration ttl,
+                          MeterRegistry meterRegistry) {
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(), "principal");
+    }
+
+    /**
+     * Возвращает пользователя из кеша, загружая его при промахе.
+     * Загрузка атомарна: {@link #evict(String)} ждет завершения загрузки и удаляет ее результат, поэтому
+     * пользователь, загруженный до смены роли, не попадет в кеш после сброса. На время загрузки
+     * блокируется только запись этого email; в режиме виртуальных потоков на Java 21 ожидающий ее поток
+     * закрепляется за потоком-носителем, что допустимо для одного короткого запроса к БД.
+     *
+     * @param email Email пользователя.
+     * @param loader Функция загрузки пользователя из БД.
+     * @return Данные пользователя.
+     */
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        return cache.get(email, loader);
+    }
+
+    /**
+     * Удаляет пользователя из кеша (например, после смены роли).
+     *
+     * @param email Email пользователя.
+     */
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+
+    /**
+     * Удаляет из кеша всех пользователей (например, после потери уведомлений об изменениях).
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
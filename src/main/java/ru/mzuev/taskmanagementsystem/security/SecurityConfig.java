@@ -1,5 +1,6 @@
 package ru.mzuev.taskmanagementsystem.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
@@ -15,10 +16,14 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Конфигурация безопасности Spring. Настраивает CORS, JWT-аутентификацию, права доступа к эндпоинтам.
@@ -34,6 +39,7 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ManagementPortRequestMatcher managementPort;
 
     /**
      * Конфигурирует цепочку фильтров безопасности.
@@ -53,8 +59,17 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 // Настройка авторизации для эндпоинтов
                 .authorizeHttpRequests(auth -> auth
+                        // Завершение потокового ответа: запрос уже авторизован при исходной обработке
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Доступ к эндпоинтам для аутентификации и документации Swagger не требует авторизации
                         .requestMatchers("/api/auth/**", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        // Проверка состояния и метрики Prometheus открыты только на отдельном порту Actuator
+                        // (management.server.port), который не публикуется наружу; остальные эндпоинты Actuator
+                        // и любые эндпоинты Actuator на порту приложения - только администраторам
+                        .requestMatchers(new AndRequestMatcher(managementPort, new OrRequestMatcher(
+                                AntPathRequestMatcher.antMatcher("/actuator/health"),
+                                AntPathRequestMatcher.antMatcher("/actuator/prometheus")))).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Остальные эндпоинты доступны только аутентифицированным пользователям
                         .anyRequest().authenticated()
                 );
@@ -89,9 +104,15 @@ public class SecurityConfig {
         config.setAllowedHeaders(Arrays.asList(
                 "Authorization",
                 "Content-Type",
-                "Accept"
+                "Accept",
+                "Idempotency-Key",
+                "If-Match",
+                "If-None-Match"
         ));
 
+        // Заголовки ответа, доступные скрипту на странице (ETag нужен для условных запросов)
+        config.setExposedHeaders(List.of("ETag"));
+
         // Разрешить отправку cookie и авторизационных данных
         config.setAllowCredentials(true);
 
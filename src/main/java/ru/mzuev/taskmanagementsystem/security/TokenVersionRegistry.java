@@ -0,0 +1,53 @@
+package ru.mzuev.taskmanagementsystem.security;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр версий токенов пользователей для stateless-режима аутентификации.
+ * Каждый токен содержит версию, действовавшую на момент выдачи. Увеличение версии пользователя
+ * (например, при смене роли) отзывает все выданные ему ранее токены без обращения к БД.
+ * Версия хранится в БД (users.token_version), а реестр — ее копия в памяти для проверки токенов.
+ * Между экземплярами приложения отзыв передается через EntityCacheInvalidator вместе с новой версией.
+ * Перезапущенный экземпляр заполняет реестр из БД при запуске и сверяет версию пользователя с БД
+ * перед выдачей токена (UserService#syncTokenVersion), поэтому не выдает токены с отозванной версией.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Возвращает текущую версию токенов пользователя.
+     *
+     * @param userId Идентификатор пользователя.
+     * @return Текущая версия (0, если токены пользователя еще не отзывались).
+     */
+    public long currentVersion(Long userId) {
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Отзывает токены пользователя с версией ниже заданной. Повторный вызов с той же версией
+     * (например, при получении собственного уведомления) ничего не меняет.
+     *
+     * @param userId Идентификатор пользователя.
+     * @param version Новая версия токенов.
+     */
+    public void revoke(Long userId, long version) {
+        versions.merge(userId, version, Math::max);
+    }
+
+    /**
+     * Проверяет, что версия токена не устарела.
+     *
+     * @param userId Идентификатор пользователя из токена.
+     * @param tokenVersion Версия из токена.
+     * @return true, если токен не отозван.
+     */
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        return tokenVersion >= currentVersion(userId);
+    }
+}
@@ -1,6 +1,9 @@
 package ru.mzuev.taskmanagementsystem.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -9,7 +12,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.mzuev.taskmanagementsystem.dto.CommentDTO;
 import ru.mzuev.taskmanagementsystem.dto.CommentRequest;
+import ru.mzuev.taskmanagementsystem.dto.CursorPage;
+import ru.mzuev.taskmanagementsystem.event.TaskChangeEvent;
 import ru.mzuev.taskmanagementsystem.exception.AccessDeniedException;
+import ru.mzuev.taskmanagementsystem.exception.InvalidCursorException;
 import ru.mzuev.taskmanagementsystem.exception.TaskNotFoundException;
 import ru.mzuev.taskmanagementsystem.mapper.CommentMapper;
 import ru.mzuev.taskmanagementsystem.model.Comment;
@@ -17,17 +23,21 @@ import ru.mzuev.taskmanagementsystem.model.Task;
 import ru.mzuev.taskmanagementsystem.model.User;
 import ru.mzuev.taskmanagementsystem.repository.CommentRepository;
 
+import java.util.List;
+
 /**
  * Сервис для работы с комментариями.
  */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "service.invocations", histogram = true)
 public class CommentService {
 
     private final CommentRepository commentRepository;
     private final TaskService taskService;
     private final UserService userService;
     private final CommentMapper commentMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Создает комментарий для задачи.
@@ -45,7 +55,8 @@ public class CommentService {
         Task task = taskService.getTaskEntityById(commentRequest.getTaskId());
 
         // Если пользователь не админ и не является исполнителем задачи, выбрасываем исключение
-        if (!isAdmin(auth) && (task.getExecutor() == null || !currentUser.getEmail().equals(task.getExecutor().getEmail()))) {
+        // Сравниваем идентификаторы, чтобы не загружать исполнителя задачи
+        if (!isAdmin(auth) && (task.getExecutor() == null || !currentUser.getId().equals(task.getExecutor().getId()))) {
             throw new AccessDeniedException("Пользователь может комментировать только свои задачи.");
         }
 
@@ -55,6 +66,7 @@ public class CommentService {
         comment.setUser(currentUser);
 
         Comment savedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(TaskChangeEvent.of(TaskChangeEvent.Type.COMMENT_ADDED, task, task.getStatus(), null));
         return commentMapper.toDTO(savedComment);
     }
 
@@ -68,11 +80,48 @@ public class CommentService {
      */
     @Transactional(readOnly = true)
     public Page<CommentDTO> getCommentsByTask(Long taskId, Pageable pageable) {
-        if (!taskService.existsById(taskId)) {
+        Page<CommentDTO> comments = commentRepository.findDTOByTaskId(taskId, pageable);
+        requireTaskIfEmpty(comments.isEmpty(), taskId);
+        return comments;
+    }
+
+    /**
+     * Возвращает срез комментариев задачи в порядке создания с курсорной (keyset) пагинацией, без COUNT-запроса.
+     *
+     * @param taskId Идентификатор задачи.
+     * @param cursor Курсор, полученный с предыдущим срезом, или null для первого среза.
+     * @param size Размер среза.
+     * @return Срез комментариев в формате DTO.
+     * @throws TaskNotFoundException Если задача не найдена.
+     * @throws InvalidCursorException Если курсор некорректен.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CommentDTO> getCommentsByTask(Long taskId, String cursor, int size) {
+        int limit = KeysetCursor.clampSize(size);
+        List<CommentDTO> comments;
+        if (cursor == null || cursor.isEmpty()) {
+            comments = commentRepository.findDTOByTaskIdFirst(taskId, Limit.of(limit + 1));
+        } else {
+            KeysetCursor.CreatedAtKey key = KeysetCursor.decodeCreatedAtKey(cursor);
+            comments = commentRepository.findDTOByTaskIdAfter(taskId, key.createdAt(), key.id(), Limit.of(limit + 1));
+        }
+        requireTaskIfEmpty(comments.isEmpty(), taskId);
+        return KeysetCursor.toPage(comments, limit,
+                comment -> KeysetCursor.encode(comment.getCreatedAt(), comment.getId()));
+    }
+
+    /**
+     * Проверяет существование задачи, только если выборка комментариев пуста: непустая выборка
+     * сама подтверждает, что задача существует.
+     *
+     * @param empty Пуста ли выборка комментариев.
+     * @param taskId Идентификатор задачи.
+     * @throws TaskNotFoundException Если задача не найдена.
+     */
+    private void requireTaskIfEmpty(boolean empty, Long taskId) {
+        if (empty && !taskService.existsById(taskId)) {
             throw new TaskNotFoundException(taskId);
         }
-        Page<Comment> comments = commentRepository.findByTaskId(taskId, pageable);
-        return comments.map(commentMapper::toDTO);
     }
 
     private boolean isAdmin(Authentication auth) {
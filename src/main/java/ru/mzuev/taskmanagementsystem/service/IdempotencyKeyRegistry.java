@@ -0,0 +1,100 @@
+package ru.mzuev.taskmanagementsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.exception.IdempotencyKeyMismatchException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Реестр ключей идемпотентности для создания задач: ключ -> пользователь, хеш тела запроса
+ * и идентификатор созданной задачи. Позволяет клиенту безопасно повторить запрос на создание
+ * и получить ту же задачу. Ключ привязан к пользователю и телу первого запроса: повтор ключа
+ * другим пользователем или с другими данными отклоняется, а не возвращает чужую задачу.
+ * Реестр локален для экземпляра приложения; повтор, попавший на другой экземпляр,
+ * по-прежнему защищен уникальностью названия задачи в БД.
+ */
+@Component
+public class IdempotencyKeyRegistry {
+
+    private final Cache<String, IdempotentRequest> keys;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Создает реестр с заданными ограничениями.
+     *
+     * @param maximumSize Максимальное количество хранимых ключей.
+     * @param ttl Время хранения ключа.
+     * @param objectMapper ObjectMapper для приведения тела запроса к каноническому виду перед хешированием.
+     */
+    public IdempotencyKeyRegistry(@Value("${tasks.idempotency.maximum-size:100000}") long maximumSize,
+                                  @Value("${tasks.idempotency.ttl:24h}") Duration ttl,
+                                  ObjectMapper objectMapper) {
+        this.keys = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Вычисляет хеш данных задачи из тела запроса (SHA-256 от JSON-представления).
+     *
+     * @param taskDTO Данные задачи.
+     * @return Хеш в шестнадцатеричном виде.
+     */
+    public String payloadHash(TaskDTO taskDTO) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(taskDTO)));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Не удалось сериализовать задачу", ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 недоступен", ex);
+        }
+    }
+
+    /**
+     * Возвращает идентификатор задачи, созданной ранее с указанным ключом.
+     *
+     * @param key Ключ идемпотентности.
+     * @param principal Имя пользователя, выполняющего запрос.
+     * @param payloadHash Хеш тела запроса (см. {@link #payloadHash(TaskDTO)}).
+     * @return Идентификатор задачи, если ключ уже использовался этим пользователем с тем же телом запроса.
+     * @throws IdempotencyKeyMismatchException Если ключ использовался другим пользователем или с другим телом запроса.
+     */
+    public Optional<Long> find(String key, String principal, String payloadHash) {
+        IdempotentRequest request = keys.getIfPresent(key);
+        if (request == null) {
+            return Optional.empty();
+        }
+        if (!request.principal().equals(principal) || !request.payloadHash().equals(payloadHash)) {
+            throw new IdempotencyKeyMismatchException(key);
+        }
+        return Optional.of(request.taskId());
+    }
+
+    /**
+     * Запоминает задачу, созданную с указанным ключом.
+     *
+     * @param key Ключ идемпотентности.
+     * @param principal Имя пользователя, выполнившего запрос.
+     * @param payloadHash Хеш тела запроса.
+     * @param taskId Идентификатор созданной задачи.
+     */
+    public void register(String key, String principal, String payloadHash, Long taskId) {
+        keys.put(key, new IdempotentRequest(principal, payloadHash, taskId));
+    }
+
+    private record IdempotentRequest(String principal, String payloadHash, Long taskId) {
+    }
+}
@@ -0,0 +1,154 @@
+package ru.mzuev.taskmanagementsystem.service;
+
+import ru.mzuev.taskmanagementsystem.dto.CursorPage;
+import ru.mzuev.taskmanagementsystem.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Кодирование и разбор непрозрачных курсоров keyset-пагинации. Курсор содержит значения ключа сортировки
+ * последнего элемента среза, закодированные в Base64 URL.
+ */
+final class KeysetCursor {
+
+    /**
+     * Максимальный размер среза.
+     */
+    static final int MAX_SIZE = 1000;
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Кодирует курсор из значений ключа сортировки.
+     *
+     * @param values Значения ключа сортировки.
+     * @return Непрозрачный курсор.
+     */
+    static String encode(Object... values) {
+        StringBuilder raw = new StringBuilder();
+        for (Object value : values) {
+            if (!raw.isEmpty()) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разбирает курсор с идентификатором в качестве ключа сортировки.
+     *
+     * @param cursor Курсор или null для первого среза.
+     * @return Идентификатор последнего элемента предыдущего среза (0 для первого среза).
+     * @throws InvalidCursorException Если курсор некорректен.
+     */
+    static long decodeId(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        String[] parts = split(cursor, 1);
+        try {
+            return Long.parseLong(parts[0]);
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Разбирает курсор с ключом сортировки (дата создания, идентификатор).
+     *
+     * @param cursor Курсор.
+     * @return Значения ключа сортировки последнего элемента предыдущего среза.
+     * @throws InvalidCursorException Если курсор некорректен.
+     */
+    static CreatedAtKey decodeCreatedAtKey(String cursor) {
+        String[] parts = split(cursor, 2);
+        try {
+            return new CreatedAtKey(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Разбирает курсор с ключом сортировки (релевантность, идентификатор).
+     *
+     * @param cursor Курсор.
+     * @return Значения ключа сортировки последнего элемента предыдущего среза.
+     * @throws InvalidCursorException Если курсор некорректен.
+     */
+    static RankKey decodeRankKey(String cursor) {
+        String[] parts = split(cursor, 2);
+        try {
+            return new RankKey(Float.parseFloat(parts[0]), Long.parseLong(parts[1]));
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Формирует срез из результатов запроса, выбранных с запасом в один элемент.
+     *
+     * @param rows      Результаты запроса (не более size + 1 элементов).
+     * @param size      Запрошенный размер среза.
+     * @param cursorKey Функция, формирующая курсор по последнему элементу среза.
+     * @param <T>       Тип элементов.
+     * @return Срез с курсором на следующий срез.
+     */
+    static <T> CursorPage<T> toPage(List<T> rows, int size, Function<T, String> cursorKey) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorKey.apply(content.get(content.size() - 1)) : null;
+        return new CursorPage<>(List.copyOf(content), nextCursor, hasNext);
+    }
+
+    /**
+     * Ограничивает запрошенный размер среза допустимыми пределами.
+     *
+     * @param size Запрошенный размер.
+     * @return Размер в пределах от 1 до {@link #MAX_SIZE}.
+     */
+    static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    private static String[] split(String cursor, int expectedParts) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+        String[] parts = raw.split("\\|", -1);
+        if (parts.length != expectedParts) {
+            throw new InvalidCursorException(cursor);
+        }
+        return parts;
+    }
+
+    /**
+     * Ключ сортировки комментариев: дата создания и идентификатор.
+     *
+     * @param createdAt Дата создания.
+     * @param id        Идентификатор.
+     */
+    record CreatedAtKey(LocalDateTime createdAt, Long id) {
+    }
+
+    /**
+     * Ключ сортировки результатов поиска: релевантность и идентификатор.
+     *
+     * @param rank Релевантность.
+     * @param id   Идентификатор.
+     */
+    record RankKey(float rank, Long id) {
+    }
+}
@@ -0,0 +1,88 @@
+package ru.mzuev.taskmanagementsystem.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mzuev.taskmanagementsystem.dto.CommentDTO;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.dto.TaskExportItem;
+import ru.mzuev.taskmanagementsystem.exception.UserNotFoundException;
+import ru.mzuev.taskmanagementsystem.repository.CommentRepository;
+import ru.mzuev.taskmanagementsystem.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Сервис выгрузки задач. Задачи и комментарии читаются серверными курсорами сразу в виде DTO,
+ * поэтому контекст персистентности не растет, а память не зависит от объема выгрузки.
+ * Комментарии сопоставляются с задачами за один проход по двум потокам, упорядоченным по задаче.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskExportService {
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final UserService userService;
+
+    /**
+     * Проверяет фильтр выгрузки до начала передачи ответа.
+     *
+     * @param authorId   Идентификатор автора или null.
+     * @param executorId Идентификатор исполнителя или null.
+     * @throws UserNotFoundException Если указанный автор или исполнитель не найден.
+     */
+    @Transactional(readOnly = true)
+    public void checkFilter(Long authorId, Long executorId) {
+        if (authorId != null && !userService.existsById(authorId)) {
+            throw new UserNotFoundException("Автор не найден с id " + authorId);
+        }
+        if (executorId != null && !userService.existsById(executorId)) {
+            throw new UserNotFoundException("Исполнитель не найден с id " + executorId);
+        }
+    }
+
+    /**
+     * Передает задачи, выбранные фильтром, получателю по одной в порядке идентификаторов.
+     * Выполняется в одной читающей транзакции на все время выгрузки.
+     *
+     * @param authorId     Идентификатор автора или null.
+     * @param executorId   Идентификатор исполнителя или null.
+     * @param withComments Добавлять ли к задачам их комментарии.
+     * @param consumer     Получатель строк выгрузки.
+     */
+    @Transactional(readOnly = true)
+    public void exportTasks(Long authorId, Long executorId, boolean withComments, Consumer<TaskExportItem> consumer) {
+        try (Stream<TaskDTO> tasks = taskRepository.streamDTOByFilter(authorId, executorId)) {
+            if (!withComments) {
+                tasks.forEach(task -> consumer.accept(new TaskExportItem(task, null)));
+                return;
+            }
+            try (Stream<CommentDTO> comments = commentRepository.streamDTOByTaskFilter(authorId, executorId)) {
+                Iterator<CommentDTO> commentIterator = comments.iterator();
+                CommentDTO nextComment = commentIterator.hasNext() ? commentIterator.next() : null;
+                for (Iterator<TaskDTO> taskIterator = tasks.iterator(); taskIterator.hasNext(); ) {
+                    TaskDTO task = taskIterator.next();
+                    List<CommentDTO> taskComments = new ArrayList<>();
+                    // Запросы задач и комментариев видят разные снимки данных (READ COMMITTED): комментарии
+                    // задачи, которой нет в потоке задач (создана или переназначена между запросами), пропускаются,
+                    // иначе сопоставление остановится на них и следующие задачи останутся без комментариев
+                    while (nextComment != null && nextComment.getTaskId() < task.getId()) {
+                        nextComment = commentIterator.hasNext() ? commentIterator.next() : null;
+                    }
+                    // Оба потока упорядочены по задаче: забираем комментарии, пока они относятся к текущей
+                    while (nextComment != null && Objects.equals(nextComment.getTaskId(), task.getId())) {
+                        taskComments.add(nextComment);
+                        nextComment = commentIterator.hasNext() ? commentIterator.next() : null;
+                    }
+                    consumer.accept(new TaskExportItem(task, taskComments));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package ru.mzuev.taskmanagementsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mzuev.taskmanagementsystem.cache.EntityCacheInvalidator;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.dto.TaskImportResult;
+import ru.mzuev.taskmanagementsystem.event.TaskChangeEvent;
+import ru.mzuev.taskmanagementsystem.exception.TaskAlreadyExistsException;
+import ru.mzuev.taskmanagementsystem.exception.UserNotFoundException;
+import ru.mzuev.taskmanagementsystem.model.Task;
+import ru.mzuev.taskmanagementsystem.model.User;
+import ru.mzuev.taskmanagementsystem.outbox.OutboxWriter;
+import ru.mzuev.taskmanagementsystem.repository.TaskRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис массового импорта задач. Создает новые задачи и обновляет существующие (совпадение по названию).
+ * Входные данные читаются потоково и обрабатываются порциями: каждая порция проверяется, пользователи
+ * и существующие задачи загружаются для нее одним IN-запросом, а запись выполняется JDBC-пакетами
+ * в отдельной транзакции. Ошибки отдельных строк попадают в отчет и не прерывают импорт.
+ */
+@Service
+public class TaskImportService {
+
+    // Ограничение на количество ошибок в ответе, чтобы отчет не рос вместе с объемом импорта
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    // Нарушение ограничения БД, не связанное с повтором названия (текст совпадает с ответом API на такую ошибку)
+    private static final String INTEGRITY_VIOLATION_MESSAGE = "Нарушено ограничение целостности данных";
+
+    private final TaskRepository taskRepository;
+    private final UserService userService;
+    private final Validator validator;
+    private final EntityCacheInvalidator entityCacheInvalidator;
+    private final OutboxWriter outboxWriter;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader taskReader;
+    private final int chunkSize;
+
+    /**
+     * Создает сервис импорта.
+     *
+     * @param taskRepository Репозиторий задач.
+     * @param userService Сервис пользователей.
+     * @param validator Валидатор DTO.
+     * @param entityCacheInvalidator Рассылка изменений кешируемых сущностей.
+     * @param outboxWriter Запись событий изменения задач в outbox.
+     * @param entityManager Менеджер сущностей (для очистки контекста после каждой порции).
+     * @param transactionManager Менеджер транзакций.
+     * @param objectMapper Jackson-маппер приложения.
+     * @param chunkSize Количество строк в одной транзакции.
+     */
+    public TaskImportService(TaskRepository taskRepository,
+                             UserService userService,
+                             Validator validator,
+                             EntityCacheInvalidator entityCacheInvalidator,
+                             OutboxWriter outboxWriter,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${tasks.import.chunk-size:500}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.userService = userService;
+        this.validator = validator;
+        this.entityCacheInvalidator = entityCacheInvalidator;
+        this.outboxWriter = outboxWriter;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskReader = objectMapper.readerFor(TaskDTO.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Импортирует задачи из JSON-массива или NDJSON (по одному JSON-объекту на строку).
+     * Строка со значением неподходящего типа (например, "authorId":"abc") пропускается с ошибкой в отчете,
+     * чтение продолжается со следующей строки. При синтаксически некорректном JSON продолжить чтение нельзя:
+     * ошибка фиксируется для текущей строки, а уже прочитанные строки импортируются.
+     *
+     * @param body Входной поток с задачами.
+     * @return Отчет об импорте.
+     * @throws IOException В случае ошибок чтения входного потока.
+     */
+    public TaskImportResult importTasks(InputStream body) throws IOException {
+        TaskImportResult result = new TaskImportResult();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        int rowNumber = 0;
+        try (MappingIterator<TaskDTO> rows = taskReader.readValues(body)) {
+            while (true) {
+                rowNumber++;
+                TaskDTO task;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    task = rows.nextValue();
+                } catch (JsonMappingException ex) {
+                    // Синтаксис не нарушен: MappingIterator пропускает остаток строки и читает следующую
+                    addError(result, rowNumber, null, mappingErrorMessage(ex));
+                    continue;
+                }
+                chunk.add(new ImportRow(rowNumber, task));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            addError(result, rowNumber, null, "Некорректный JSON: " + ex.getOriginalMessage()
+                    + ". Чтение остановлено, строки начиная с " + rowNumber + " не импортированы");
+        }
+        importChunk(chunk, result);
+        return result;
+    }
+
+    /**
+     * Импортирует порцию строк в одной транзакции. Если транзакция откатывается из-за ограничения БД
+     * (например, задачу с тем же названием параллельно создал другой запрос), строки порции
+     * повторяются по одной, чтобы отклонить только конфликтующие. Повтор названия и прочие нарушения
+     * ограничений (например, слишком длинное значение) описываются в ошибке строки по-разному.
+     */
+    private void importChunk(List<ImportRow> chunk, TaskImportResult result) {
+        List<ImportRow> validRows = validate(chunk, result);
+        if (validRows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.execute(status -> writeRows(validRows)).mergeInto(result);
+        } catch (DataIntegrityViolationException ex) {
+            for (ImportRow row : validRows) {
+                try {
+                    transactionTemplate.execute(status -> writeRows(List.of(row))).mergeInto(result);
+                } catch (DataIntegrityViolationException rowEx) {
+                    addError(result, row.number(), row.task().getTitle(), TaskService.isTitleConflict(rowEx)
+                            ? new TaskAlreadyExistsException(row.task().getTitle()).getMessage()
+                            : INTEGRITY_VIOLATION_MESSAGE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверяет строки порции аннотациями валидации {@link TaskDTO}.
+     *
+     * @return Строки, прошедшие проверку.
+     */
+    private List<ImportRow> validate(List<ImportRow> chunk, TaskImportResult result) {
+        List<ImportRow> validRows = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (row.task() == null) {
+                addError(result, row.number(), null, "Пустая строка");
+                continue;
+            }
+            Set<ConstraintViolation<TaskDTO>> violations = validator.validate(row.task());
+            if (violations.isEmpty()) {
+                validRows.add(row);
+            } else {
+                String message = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                addError(result, row.number(), row.task().getTitle(), message);
+            }
+        }
+        return validRows;
+    }
+
+    /**
+     * Записывает строки в текущей транзакции. Пользователи и существующие задачи загружаются
+     * одним запросом на всю порцию, новые задачи сохраняются пакетными INSERT.
+     */
+    private ChunkResult writeRows(List<ImportRow> rows) {
+        Set<Long> userIds = new HashSet<>();
+        Set<String> titles = new HashSet<>();
+        for (ImportRow row : rows) {
+            userIds.add(row.task().getAuthorId());
+            if (row.task().getExecutorId() != null) {
+                userIds.add(row.task().getExecutorId());
+            }
+            titles.add(row.task().getTitle());
+        }
+        Map<Long, User> users = userService.findEntitiesByIds(userIds);
+        Map<String, Task> tasksByTitle = taskRepository.findByTitleIn(titles).stream()
+                .collect(Collectors.toMap(Task::getTitle, Function.identity()));
+
+        ChunkResult chunkResult = new ChunkResult();
+        List<Task> newTasks = new ArrayList<>();
+        List<Task> updatedTasks = new ArrayList<>();
+        for (ImportRow row : rows) {
+            TaskDTO taskDTO = row.task();
+            User author = users.get(taskDTO.getAuthorId());
+            User executor = taskDTO.getExecutorId() != null ? users.get(taskDTO.getExecutorId()) : null;
+            if (author == null || (taskDTO.getExecutorId() != null && executor == null)) {
+                Long missingId = author == null ? taskDTO.getAuthorId() : taskDTO.getExecutorId();
+                chunkResult.errors.add(new TaskImportResult.RowError(row.number(), taskDTO.getTitle(),
+                        new UserNotFoundException(missingId).getMessage()));
+                continue;
+            }
+
+            Task task = tasksByTitle.get(taskDTO.getTitle());
+            if (task == null) {
+                task = new Task();
+                task.setTitle(taskDTO.getTitle());
+                tasksByTitle.put(task.getTitle(), task);
+                newTasks.add(task);
+                chunkResult.created++;
+            } else {
+                updatedTasks.add(task);
+                chunkResult.updated++;
+            }
+            task.setDescription(taskDTO.getDescription());
+            task.setStatus(taskDTO.getStatus());
+            task.setPriority(taskDTO.getPriority());
+            task.setAuthor(author);
+            task.setExecutor(executor);
+        }
+        taskRepository.saveAll(newTasks);
+        if (chunkResult.updated > 0) {
+            entityCacheInvalidator.publishAll(Task.class);
+        }
+        List<TaskChangeEvent> events = new ArrayList<>(newTasks.size() + updatedTasks.size());
+        newTasks.forEach(task -> events.add(TaskChangeEvent.of(TaskChangeEvent.Type.CREATED, task, task.getStatus(), null)));
+        updatedTasks.forEach(task -> events.add(TaskChangeEvent.of(TaskChangeEvent.Type.UPDATED, task, task.getStatus(), null)));
+        if (!events.isEmpty()) {
+            outboxWriter.appendAll(events);
+        }
+        // Отправляем пакеты до коммита, чтобы нарушение ограничений пришло отсюда, и освобождаем контекст
+        taskRepository.flush();
+        entityManager.clear();
+        return chunkResult;
+    }
+
+    /**
+     * Описывает ошибку преобразования строки в {@link TaskDTO} с указанием поля.
+     */
+    private static String mappingErrorMessage(JsonMappingException ex) {
+        String field = ex.getPath().stream()
+                .map(JsonMappingException.Reference::getFieldName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining("."));
+        return (field.isEmpty() ? "" : field + ": ") + "некорректное значение (" + ex.getOriginalMessage() + ")";
+    }
+
+    private static void addError(TaskImportResult result, int rowNumber, String title, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new TaskImportResult.RowError(rowNumber, title, message));
+        }
+    }
+
+    /**
+     * Строка входных данных с ее номером.
+     */
+    private record ImportRow(int number, TaskDTO task) {
+    }
+
+    /**
+     * Итог записи порции; переносится в общий отчет только после успешного коммита.
+     */
+    private static class ChunkResult {
+        private int created;
+        private int updated;
+        private final List<TaskImportResult.RowError> errors = new ArrayList<>();
+
+        void mergeInto(TaskImportResult result) {
+            result.setCreated(result.getCreated() + created);
+            result.setUpdated(result.getUpdated() + updated);
+            errors.forEach(error -> addError(result, error.getRow(), error.getTitle(), error.getMessage()));
+        }
+    }
+}
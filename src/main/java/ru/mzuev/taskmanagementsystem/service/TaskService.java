@@ -1,32 +1,67 @@
 package ru.mzuev.taskmanagementsystem.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.mzuev.taskmanagementsystem.cache.EntityCacheInvalidator;
+import ru.mzuev.taskmanagementsystem.dto.BulkStatusUpdateRequest;
+import ru.mzuev.taskmanagementsystem.dto.BulkStatusUpdateResult;
+import ru.mzuev.taskmanagementsystem.dto.CursorPage;
 import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.dto.TaskSearchRequest;
+import ru.mzuev.taskmanagementsystem.event.TaskChangeEvent;
 import ru.mzuev.taskmanagementsystem.exception.AccessDeniedException;
+import ru.mzuev.taskmanagementsystem.exception.BulkUpdateLimitExceededException;
+import ru.mzuev.taskmanagementsystem.exception.IdempotencyKeyMismatchException;
+import ru.mzuev.taskmanagementsystem.exception.InvalidCursorException;
 import ru.mzuev.taskmanagementsystem.exception.TaskAlreadyExistsException;
 import ru.mzuev.taskmanagementsystem.exception.TaskNotFoundException;
+import ru.mzuev.taskmanagementsystem.exception.TaskVersionMismatchException;
 import ru.mzuev.taskmanagementsystem.exception.UserNotFoundException;
 import ru.mzuev.taskmanagementsystem.mapper.TaskMapper;
 import ru.mzuev.taskmanagementsystem.model.Task;
+import ru.mzuev.taskmanagementsystem.outbox.OutboxWriter;
 import ru.mzuev.taskmanagementsystem.repository.TaskRepository;
+import ru.mzuev.taskmanagementsystem.repository.TaskSearchRepository;
+
+import java.util.*;
 
 /**
  * Сервис для управления задачами: создание, обновление, удаление, поиск.
  */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "service.invocations", histogram = true)
 public class TaskService {
 
+    // Имя ограничения уникальности названия задачи (см. миграцию V2__query_indexes.sql)
+    private static final String TITLE_CONSTRAINT = "uk_tasks_title";
+
+    // Максимальное количество параметров в одном IN-списке при массовых операциях
+    private static final int IN_CLAUSE_SIZE = 1000;
+
     private final TaskRepository taskRepository;
     private final UserService userService;
     private final TaskMapper taskMapper;
+    private final IdempotencyKeyRegistry idempotencyKeyRegistry;
+    private final EntityCacheInvalidator entityCacheInvalidator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxWriter outboxWriter;
+    private final TaskSearchRepository taskSearchRepository;
 
     /**
-     * Создает новую задачу.
+     * Создает новую задачу. Уникальность названия обеспечивается ограничением в БД,
+     * поэтому создание выполняется одним INSERT без предварительной проверки.
      *
      * @param taskDTO DTO с данными задачи.
      * @return Созданная задача в формате DTO.
@@ -34,11 +69,44 @@ public class TaskService {
      */
     @Transactional
     public TaskDTO createTask(TaskDTO taskDTO) {
-        if (taskRepository.existsByTitle(taskDTO.getTitle())) {
-            throw new TaskAlreadyExistsException(taskDTO.getTitle());
+        return createTask(taskDTO, null, null);
+    }
+
+    /**
+     * Создает новую задачу с ключом идемпотентности. Повторный запрос того же пользователя
+     * с тем же ключом и теми же данными возвращает ранее созданную задачу вместо ошибки о дублировании.
+     *
+     * @param taskDTO DTO с данными задачи.
+     * @param idempotencyKey Ключ идемпотентности или null.
+     * @param principal Имя пользователя, выполняющего запрос (учитывается только вместе с ключом).
+     * @return Созданная (или ранее созданная с тем же ключом) задача в формате DTO.
+     * @throws TaskAlreadyExistsException Если задача с таким названием уже существует.
+     * @throws IdempotencyKeyMismatchException Если ключ использован другим пользователем или с другими данными.
+     */
+    @Transactional
+    public TaskDTO createTask(TaskDTO taskDTO, String idempotencyKey, String principal) {
+        String payloadHash = null;
+        if (idempotencyKey != null) {
+            payloadHash = idempotencyKeyRegistry.payloadHash(taskDTO);
+            Optional<Long> existingTaskId = idempotencyKeyRegistry.find(idempotencyKey, principal, payloadHash);
+            if (existingTaskId.isPresent()) {
+                return getTaskById(existingTaskId.get());
+            }
         }
         Task task = taskMapper.toEntity(taskDTO);
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = saveUniqueTitle(task);
+        eventPublisher.publishEvent(TaskChangeEvent.of(TaskChangeEvent.Type.CREATED, savedTask, savedTask.getStatus(), null));
+        if (idempotencyKey != null) {
+            // Ключ запоминается только после коммита, чтобы не ссылаться на откатившуюся задачу
+            Long taskId = savedTask.getId();
+            String requestHash = payloadHash;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    idempotencyKeyRegistry.register(idempotencyKey, principal, requestHash, taskId);
+                }
+            });
+        }
         return taskMapper.toDTO(savedTask);
     }
 
@@ -49,13 +117,35 @@ public class TaskService {
      * @param taskDTO DTO с новыми данными задачи.
      * @return Обновленная задача в формате DTO.
      * @throws TaskNotFoundException Если задача с указанным ID не найдена.
+     * @throws TaskAlreadyExistsException Если задача с новым названием уже существует.
      */
     @Transactional
     public TaskDTO updateTask(Long taskId, TaskDTO taskDTO) {
+        return updateTask(taskId, taskDTO, null);
+    }
+
+    /**
+     * Обновляет существующую задачу, если ее текущая версия входит в ожидаемые.
+     *
+     * @param taskId Идентификатор обновляемой задачи.
+     * @param taskDTO DTO с новыми данными задачи.
+     * @param expectedVersions Допустимые текущие версии задачи или null, если версия не проверяется.
+     * @return Обновленная задача в формате DTO.
+     * @throws TaskNotFoundException Если задача с указанным ID не найдена.
+     * @throws TaskVersionMismatchException Если текущая версия задачи не входит в ожидаемые или задачу изменили параллельно.
+     * @throws TaskAlreadyExistsException Если задача с новым названием уже существует.
+     */
+    @Transactional
+    public TaskDTO updateTask(Long taskId, TaskDTO taskDTO, Collection<Long> expectedVersions) {
         Task existingTask = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException(taskId));
+        requireVersion(existingTask, expectedVersions);
+        // Исполнитель, с которого снимается задача, тоже получает уведомление
+        Long previousExecutorId = existingTask.getExecutor() != null ? existingTask.getExecutor().getId() : null;
         taskMapper.updateEntity(taskDTO, existingTask);
-        Task updatedTask = taskRepository.save(existingTask);
+        Task updatedTask = saveExpectingVersion(existingTask, expectedVersions);
+        entityCacheInvalidator.publish(Task.class, taskId);
+        eventPublisher.publishEvent(TaskChangeEvent.of(TaskChangeEvent.Type.UPDATED, updatedTask, updatedTask.getStatus(), previousExecutorId));
         return taskMapper.toDTO(updatedTask);
     }
 
@@ -69,13 +159,116 @@ public class TaskService {
      */
     @Transactional
     public TaskDTO updateTaskStatus(Long taskId, String status) {
+        return updateTaskStatus(taskId, status, null);
+    }
+
+    /**
+     * Обновляет статус задачи, если ее текущая версия входит в ожидаемые.
+     *
+     * @param taskId Идентификатор задачи.
+     * @param status Новый статус задачи.
+     * @param expectedVersions Допустимые текущие версии задачи или null, если версия не проверяется.
+     * @return Обновленная задача в формате DTO.
+     * @throws TaskNotFoundException Если задача не найдена.
+     * @throws TaskVersionMismatchException Если текущая версия задачи не входит в ожидаемые или задачу изменили параллельно.
+     */
+    @Transactional
+    public TaskDTO updateTaskStatus(Long taskId, String status, Collection<Long> expectedVersions) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException(taskId));
+        requireVersion(task, expectedVersions);
         task.setStatus(status);
-        Task updatedTask = taskRepository.save(task);
+        // Сбрасываем изменения сразу, чтобы в ответ попала новая версия задачи
+        Task updatedTask = saveExpectingVersion(task, expectedVersions);
+        entityCacheInvalidator.publish(Task.class, taskId);
+        eventPublisher.publishEvent(TaskChangeEvent.of(TaskChangeEvent.Type.STATUS_CHANGED, updatedTask, status, null));
         return taskMapper.toDTO(updatedTask);
     }
 
+    /**
+     * Массово обновляет статус задач в одной транзакции. Права проверяются одним запросом на весь набор:
+     * администратор может менять любые задачи, остальные пользователи — только задачи, где они исполнители.
+     * Этот запрос блокирует строки задач, поэтому до UPDATE их нельзя переназначить или удалить, а итог
+     * и события outbox относятся ровно к обновленным задачам. Статус меняется set-based UPDATE без загрузки
+     * сущностей. Фильтр, как и список, затрагивает не больше {@link BulkStatusUpdateRequest#MAX_TASKS} задач; для фильтра возвращается только их количество.
+     *
+     * @param request Запрос со списком задач или фильтром и новым статусом.
+     * @param email Email текущего пользователя.
+     * @param admin Является ли пользователь администратором.
+     * @return Итог по каждой задаче (для списка) или количество обновленных задач.
+     * @throws BulkUpdateLimitExceededException Если фильтру соответствует слишком много задач.
+     */
+    @Transactional
+    public BulkStatusUpdateResult updateTaskStatuses(BulkStatusUpdateRequest request, String email, boolean admin) {
+        BulkStatusUpdateResult result = new BulkStatusUpdateResult();
+        boolean byIds = request.getTaskIds() != null && !request.getTaskIds().isEmpty();
+        Long userId = admin ? null : userService.findDTOByEmail(email).getId();
+        List<Long> candidateIds;
+        if (byIds) {
+            candidateIds = new ArrayList<>(new LinkedHashSet<>(request.getTaskIds()));
+        } else {
+            // Для пользователя без роли администратора фильтр ограничивается его задачами
+            candidateIds = taskRepository.findIdsByFilter(request.getAuthorId(), request.getExecutorId(),
+                    request.getCurrentStatus(), userId, Limit.of(BulkStatusUpdateRequest.MAX_TASKS + 1));
+            if (candidateIds.size() > BulkStatusUpdateRequest.MAX_TASKS) {
+                throw new BulkUpdateLimitExceededException(BulkStatusUpdateRequest.MAX_TASKS);
+            }
+        }
+
+        // Права и фильтр проверяются по заблокированным строкам: другая транзакция не может изменить их до UPDATE
+        Map<Long, TaskRepository.LockedTask> lockedTasks = new HashMap<>();
+        for (List<Long> ids : partition(candidateIds)) {
+            taskRepository.lockByIdIn(ids).forEach(task -> lockedTasks.put(task.getId(), task));
+        }
+        List<Long> allowedIds = new ArrayList<>();
+        for (Long id : candidateIds) {
+            TaskRepository.LockedTask task = lockedTasks.get(id);
+            if (!byIds) {
+                if (task != null && matchesFilter(task, request, userId)) {
+                    allowedIds.add(id);
+                }
+            } else if (task == null) {
+                result.getResults().add(new BulkStatusUpdateResult.TaskResult(id, BulkStatusUpdateResult.Outcome.NOT_FOUND));
+            } else if (admin || userId.equals(task.getExecutorId())) {
+                allowedIds.add(id);
+            } else {
+                result.getResults().add(new BulkStatusUpdateResult.TaskResult(id, BulkStatusUpdateResult.Outcome.FORBIDDEN));
+            }
+        }
+
+        int updated = 0;
+        for (List<Long> ids : partition(allowedIds)) {
+            updated += taskRepository.updateStatusByIdIn(ids, request.getStatus());
+        }
+        // Строки заблокированы при проверке прав, поэтому UPDATE затрагивает ровно allowedIds
+        if (updated != allowedIds.size()) {
+            throw new IllegalStateException("Обновлено " + updated + " задач из " + allowedIds.size() + " заблокированных");
+        }
+        if (updated > 0) {
+            entityCacheInvalidator.publishAll(Task.class);
+            // События массового обновления пишутся в outbox одним пакетом
+            outboxWriter.appendAll(allowedIds.stream()
+                    .map(id -> new TaskChangeEvent(TaskChangeEvent.Type.STATUS_CHANGED, id, request.getStatus(), Set.of()))
+                    .toList());
+        }
+        if (byIds) {
+            allowedIds.forEach(id -> result.getResults().add(
+                    new BulkStatusUpdateResult.TaskResult(id, BulkStatusUpdateResult.Outcome.UPDATED)));
+        }
+        result.setUpdated(updated);
+        return result;
+    }
+
+    /**
+     * Проверяет, что заблокированная задача по-прежнему соответствует фильтру массового обновления.
+     */
+    private static boolean matchesFilter(TaskRepository.LockedTask task, BulkStatusUpdateRequest request, Long userId) {
+        return (request.getAuthorId() == null || request.getAuthorId().equals(task.getAuthorId()))
+                && (request.getExecutorId() == null || request.getExecutorId().equals(task.getExecutorId()))
+                && (request.getCurrentStatus() == null || request.getCurrentStatus().equals(task.getStatus()))
+                && (userId == null || userId.equals(task.getExecutorId()));
+    }
+
     /**
      * Удаляет задачу по ID.
      *
@@ -84,10 +277,24 @@ public class TaskService {
      */
     @Transactional
     public void deleteTask(Long taskId) {
-        if (!taskRepository.existsById(taskId)) {
-            throw new TaskNotFoundException(taskId);
-        }
-        taskRepository.deleteById(taskId);
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException(taskId));
+        taskRepository.delete(task);
+        entityCacheInvalidator.publish(Task.class, taskId);
+        eventPublisher.publishEvent(TaskChangeEvent.of(TaskChangeEvent.Type.DELETED, task, null, null));
+    }
+
+    /**
+     * Возвращает текущую версию задачи одним запросом без загрузки задачи.
+     *
+     * @param taskId Идентификатор задачи.
+     * @return Версия задачи.
+     * @throws TaskNotFoundException Если задача не найдена.
+     */
+    @Transactional(readOnly = true)
+    public long getTaskVersion(Long taskId) {
+        return taskRepository.findVersionById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException(taskId));
     }
 
     /**
@@ -127,11 +334,9 @@ public class TaskService {
      */
     @Transactional(readOnly = true)
     public Page<TaskDTO> getTasksByAuthor(Long authorId, Pageable pageable) {
-        if (!userService.existsById(authorId)) {
-            throw new UserNotFoundException("Автор не найден с id " + authorId);
-        }
-        Page<Task> tasks = taskRepository.findByAuthorId(authorId, pageable);
-        return tasks.map(taskMapper::toDTO);
+        Page<TaskDTO> tasks = taskRepository.findDTOByAuthorId(authorId, pageable);
+        requireAuthorIfEmpty(tasks.isEmpty(), authorId);
+        return tasks;
     }
 
     /**
@@ -144,11 +349,74 @@ public class TaskService {
      */
     @Transactional(readOnly = true)
     public Page<TaskDTO> getTasksByExecutor(Long executorId, Pageable pageable) {
-        if (!userService.existsById(executorId)) {
-            throw new UserNotFoundException("Исполнитель не найден с id " + executorId);
+        Page<TaskDTO> tasks = taskRepository.findDTOByExecutorId(executorId, pageable);
+        requireExecutorIfEmpty(tasks.isEmpty(), executorId);
+        return tasks;
+    }
+
+    /**
+     * Возвращает срез задач по автору с курсорной (keyset) пагинацией, без COUNT-запроса.
+     *
+     * @param authorId Идентификатор автора.
+     * @param cursor Курсор, полученный с предыдущим срезом, или null для первого среза.
+     * @param size Размер среза.
+     * @return Срез задач в формате DTO.
+     * @throws UserNotFoundException Если автор не найден.
+     * @throws InvalidCursorException Если курсор некорректен.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> getTasksByAuthor(Long authorId, String cursor, int size) {
+        int limit = KeysetCursor.clampSize(size);
+        List<TaskDTO> tasks = taskRepository.findDTOByAuthorIdAfter(authorId, KeysetCursor.decodeId(cursor), Limit.of(limit + 1));
+        requireAuthorIfEmpty(tasks.isEmpty(), authorId);
+        return KeysetCursor.toPage(tasks, limit, task -> KeysetCursor.encode(task.getId()));
+    }
+
+    /**
+     * Возвращает срез задач по исполнителю с курсорной (keyset) пагинацией, без COUNT-запроса.
+     *
+     * @param executorId Идентификатор исполнителя.
+     * @param cursor Курсор, полученный с предыдущим срезом, или null для первого среза.
+     * @param size Размер среза.
+     * @return Срез задач в формате DTO.
+     * @throws UserNotFoundException Если исполнитель не найден.
+     * @throws InvalidCursorException Если курсор некорректен.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> getTasksByExecutor(Long executorId, String cursor, int size) {
+        int limit = KeysetCursor.clampSize(size);
+        List<TaskDTO> tasks = taskRepository.findDTOByExecutorIdAfter(executorId, KeysetCursor.decodeId(cursor), Limit.of(limit + 1));
+        requireExecutorIfEmpty(tasks.isEmpty(), executorId);
+        return KeysetCursor.toPage(tasks, limit, task -> KeysetCursor.encode(task.getId()));
+    }
+
+    /**
+     * Ищет задачи по словам запроса в названии, описании и комментариях. Результаты упорядочены
+     * по убыванию релевантности и возвращаются срезами с курсорной (keyset) пагинацией.
+     * Администратор ищет по всем задачам, остальные пользователи — только по задачам, где они исполнители.
+     *
+     * @param request Строка запроса и фильтры.
+     * @param cursor Курсор, полученный с предыдущим срезом, или null для первого среза.
+     * @param size Размер среза.
+     * @param email Email текущего пользователя.
+     * @param admin Есть ли у пользователя роль администратора.
+     * @return Срез найденных задач в формате DTO.
+     * @throws InvalidCursorException Если курсор некорректен.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> searchTasks(TaskSearchRequest request, String cursor, int size, String email, boolean admin) {
+        int limit = KeysetCursor.clampSize(size);
+        List<String> terms = TaskSearchRepository.terms(request.getQuery());
+        if (terms.isEmpty()) {
+            return new CursorPage<>(List.of(), null, false);
         }
-        Page<Task> tasks = taskRepository.findByExecutorId(executorId, pageable);
-        return tasks.map(taskMapper::toDTO);
+        KeysetCursor.RankKey after = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decodeRankKey(cursor);
+        List<TaskSearchRepository.Hit> hits = taskSearchRepository.search(terms, request, admin ? null : email,
+                after != null ? after.rank() : null, after != null ? after.id() : 0L, limit + 1);
+        CursorPage<TaskSearchRepository.Hit> page = KeysetCursor.toPage(hits, limit,
+                hit -> KeysetCursor.encode(hit.rank(), hit.task().getId()));
+        return new CursorPage<>(page.getContent().stream().map(TaskSearchRepository.Hit::task).toList(),
+                page.getNextCursor(), page.isHasNext());
     }
 
     /**
@@ -164,6 +432,8 @@ public class TaskService {
 
     /**
      * Проверяет, является ли пользователь исполнителем задачи.
+     * В успешном случае выполняется один запрос на существование без загрузки задачи,
+     * проверка наличия задачи выполняется только при отказе, чтобы вернуть корректную ошибку.
      *
      * @param taskId Идентификатор задачи.
      * @param email Email пользователя.
@@ -173,11 +443,115 @@ public class TaskService {
      */
     @Transactional(readOnly = true)
     public boolean isExecutor(Long taskId, String email) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException(taskId));
-        if (task.getExecutor() == null || !task.getExecutor().getEmail().equals(email)) {
-            throw new AccessDeniedException("Пользователь не является исполнителем задачи");
+        if (taskRepository.existsByIdAndExecutorEmail(taskId, email)) {
+            return true;
+        }
+        if (!taskRepository.existsById(taskId)) {
+            throw new TaskNotFoundException(taskId);
+        }
+        throw new AccessDeniedException("Пользователь не является исполнителем задачи");
+    }
+
+    /**
+     * Проверяет, что текущая версия задачи входит в ожидаемые. Одновременное изменение задачи
+     * после этой проверки обнаруживается оптимистической блокировкой при записи.
+     *
+     * @param task Задача.
+     * @param expectedVersions Допустимые версии или null, если версия не проверяется.
+     * @throws TaskVersionMismatchException Если версия не совпадает.
+     */
+    private static void requireVersion(Task task, Collection<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(task.getVersion())) {
+            throw new TaskVersionMismatchException(task.getId());
+        }
+    }
+
+    /**
+     * Проверяет существование автора, только если выборка пуста: непустая выборка сама подтверждает,
+     * что автор существует, поэтому в обычном случае список возвращается без дополнительного запроса.
+     *
+     * @param empty Пуста ли выборка задач.
+     * @param authorId Идентификатор автора.
+     * @throws UserNotFoundException Если автор не найден.
+     */
+    private void requireAuthorIfEmpty(boolean empty, Long authorId) {
+        if (empty && !userService.existsById(authorId)) {
+            throw new UserNotFoundException("Автор не найден с id " + authorId);
+        }
+    }
+
+    /**
+     * Проверяет существование исполнителя, только если выборка пуста.
+     *
+     * @param empty Пуста ли выборка задач.
+     * @param executorId Идентификатор исполнителя.
+     * @throws UserNotFoundException Если исполнитель не найден.
+     */
+    private void requireExecutorIfEmpty(boolean empty, Long executorId) {
+        if (empty && !userService.existsById(executorId)) {
+            throw new UserNotFoundException("Исполнитель не найден с id " + executorId);
+        }
+    }
+
+    /**
+     * Сохраняет задачу, проверенную по ожидаемым версиям. Если задачу успели изменить между проверкой
+     * версии и сохранением, для запроса с ожидаемыми версиями это такое же несовпадение версии,
+     * как и при проверке, поэтому сбой оптимистической блокировки преобразуется
+     * в {@link TaskVersionMismatchException}.
+     *
+     * @param task Сохраняемая задача.
+     * @param expectedVersions Допустимые версии задачи или null, если версия не проверяется.
+     * @return Сохраненная задача.
+     * @throws TaskVersionMismatchException Если задачу изменили параллельно, а версии ожидались.
+     * @throws TaskAlreadyExistsException Если задача с таким названием уже существует.
+     */
+    private Task saveExpectingVersion(Task task, Collection<Long> expectedVersions) {
+        try {
+            return saveUniqueTitle(task);
+        } catch (OptimisticLockingFailureException ex) {
+            if (expectedVersions != null) {
+                throw new TaskVersionMismatchException(task.getId());
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Сохраняет задачу с немедленной отправкой в БД и преобразует нарушение уникальности названия
+     * в {@link TaskAlreadyExistsException}.
+     *
+     * @param task Сохраняемая задача.
+     * @return Сохраненная задача.
+     * @throws TaskAlreadyExistsException Если задача с таким названием уже существует.
+     */
+    private Task saveUniqueTitle(Task task) {
+        try {
+            return taskRepository.saveAndFlush(task);
+        } catch (DataIntegrityViolationException ex) {
+            if (isTitleConflict(ex)) {
+                throw new TaskAlreadyExistsException(task.getTitle());
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Проверяет, вызвано ли нарушение ограничения БД повтором названия задачи (ограничение uk_tasks_title).
+     *
+     * @param ex Исключение нарушения целостности.
+     * @return true, если нарушено ограничение уникальности названия.
+     */
+    static boolean isTitleConflict(DataIntegrityViolationException ex) {
+        return ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase().contains(TITLE_CONSTRAINT);
+    }
+
+    private static List<List<Long>> partition(List<Long> ids) {
+        List<List<Long>> parts = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_SIZE) {
+            parts.add(ids.subList(from, Math.min(from + IN_CLAUSE_SIZE, ids.size())));
         }
-        return true;
+        return parts;
     }
-}
\ No newline at end of file
+}
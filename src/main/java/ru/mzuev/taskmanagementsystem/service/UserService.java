@@ -1,26 +1,43 @@
 package ru.mzuev.taskmanagementsystem.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.mzuev.taskmanagementsystem.cache.EntityCacheInvalidator;
 import ru.mzuev.taskmanagementsystem.dto.UserDTO;
 import ru.mzuev.taskmanagementsystem.exception.UserAlreadyExistsException;
 import ru.mzuev.taskmanagementsystem.exception.UserNotFoundException;
 import ru.mzuev.taskmanagementsystem.mapper.UserMapper;
 import ru.mzuev.taskmanagementsystem.model.User;
 import ru.mzuev.taskmanagementsystem.repository.UserRepository;
+import ru.mzuev.taskmanagementsystem.security.PrincipalCache;
+import ru.mzuev.taskmanagementsystem.security.TokenVersionRegistry;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Сервис для управления пользователями: регистрация, поиск, проверка существования.
  */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "service.invocations", histogram = true)
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final EntityCacheInvalidator entityCacheInvalidator;
 
     /**
      * Регистрирует нового пользователя. Первый зарегистрированный пользователь получает роль ADMIN.
@@ -39,9 +56,64 @@ public class UserService {
         String role = (userRepository.count() == 0) ? "ROLE_ADMIN" : "ROLE_USER";
         User user = new User(email, passwordEncoder.encode(password), role);
         User savedUser = userRepository.save(user);
+        // Другие экземпляры могли закешировать отрицательный результат поиска по email
+        entityCacheInvalidator.publish(User.class, savedUser.getId());
         return userMapper.toDTO(savedUser);
     }
 
+    /**
+     * Изменяет роль пользователя. Закешированные данные пользователя сбрасываются, а выданные ему токены
+     * отзываются, чтобы новая роль применялась уже к следующему запросу.
+     *
+     * @param userId Идентификатор пользователя.
+     * @param role   Новая роль (например, ROLE_ADMIN, ROLE_USER).
+     * @return Обновленный пользователь в формате DTO.
+     * @throws UserNotFoundException Если пользователь не найден.
+     */
+    @Transactional
+    public UserDTO changeRole(Long userId, String role) {
+        User user = findEntityById(userId);
+        user.setRole(role);
+        // Версия сохраняется в БД, другие экземпляры получат уведомление после коммита и тоже отзовут токены
+        long tokenVersion = Math.max(user.getTokenVersion(), tokenVersionRegistry.currentVersion(userId)) + 1;
+        user.setTokenVersion(tokenVersion);
+        entityCacheInvalidator.publishUserChange(userId, tokenVersion);
+        // Сбрасываем кеш после коммита, чтобы параллельный запрос не закешировал старую роль
+        String email = user.getEmail();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                principalCache.evict(email);
+                tokenVersionRegistry.revoke(userId, tokenVersion);
+            }
+        });
+        return userMapper.toDTO(user);
+    }
+
+    /**
+     * Обновляет реестр версий токенов пользователя по версии, сохраненной в БД. Вызывается перед выдачей токена:
+     * экземпляр, перезапущенный после отзыва, иначе выдал бы токен с устаревшей версией,
+     * который остальные экземпляры отклоняют.
+     *
+     * @param userId Идентификатор пользователя.
+     * @throws UserNotFoundException Если пользователь не найден.
+     */
+    @Transactional(readOnly = true)
+    public void syncTokenVersion(Long userId) {
+        tokenVersionRegistry.revoke(userId, findEntityById(userId).getTokenVersion());
+    }
+
+    /**
+     * Заполняет реестр версий токенов из БД при запуске, чтобы экземпляр после перезапуска
+     * не принимал токены, отозванные до него.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadTokenVersions() {
+        userRepository.findByTokenVersionGreaterThan(0)
+                .forEach(user -> tokenVersionRegistry.revoke(user.getId(), user.getTokenVersion()));
+    }
+
     /**
      * Находит пользователя по идентификатору и возвращает его в формате DTO.
      *
@@ -83,6 +155,18 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException(userId));
     }
 
+    /**
+     * Находит пользователей по списку идентификаторов одним запросом.
+     *
+     * @param userIds Идентификаторы пользователей.
+     * @return Найденные пользователи по идентификатору; отсутствующие идентификаторы в результат не попадают.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, User> findEntitiesByIds(Collection<Long> userIds) {
+        return userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
     /**
      * Находит пользователя по email и возвращает его как сущность.
      *
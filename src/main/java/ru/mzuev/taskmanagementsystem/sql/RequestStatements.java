@@ -0,0 +1,141 @@
+package ru.mzuev.taskmanagementsystem.sql;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL-запросы, выполненные при обработке одного HTTP-запроса: количество обращений к БД, суммарное время JDBC
+ * и количество запросов каждой формы (текст запроса без значений параметров).
+ * Учитываются запросы потока, обрабатывающего HTTP-запрос; запросы фоновых потоков и продолжения асинхронной
+ * обработки (потоковые ответы) не учитываются. Пакетное выполнение (executeBatch) считается одним обращением.
+ */
+public final class RequestStatements {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private String endpoint;
+    private Integer budget;
+    private boolean failOnExceed;
+    private int count;
+    private long jdbcNanos;
+    private long statementStart;
+
+    private RequestStatements() {
+    }
+
+    /**
+     * Возвращает статистику HTTP-запроса, обрабатываемого текущим потоком.
+     *
+     * @return Статистика или null, если поток не обрабатывает HTTP-запрос или учет выключен.
+     */
+    public static RequestStatements current() {
+        return CURRENT.get();
+    }
+
+    static RequestStatements begin() {
+        RequestStatements statements = new RequestStatements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Учитывает обращение к БД перед его выполнением.
+     *
+     * @param shape Форма запроса.
+     * @param batch Выполняется ли пакет.
+     * @throws StatementBudgetExceededException Если бюджет превышен и включен режим fail.
+     */
+    void beforeStatement(String shape, boolean batch) {
+        count++;
+        if (!batch) {
+            shapes.merge(shape, 1, Integer::sum);
+        }
+        if (failOnExceed && isOverBudget()) {
+            throw new StatementBudgetExceededException(endpoint, budget);
+        }
+        statementStart = System.nanoTime();
+    }
+
+    void afterStatement() {
+        jdbcNanos += System.nanoTime() - statementStart;
+    }
+
+    void limit(String endpoint, Integer budget, boolean failOnExceed) {
+        this.endpoint = endpoint;
+        this.budget = budget;
+        this.failOnExceed = failOnExceed;
+    }
+
+    /**
+     * Возвращает эндпоинт в формате "МЕТОД шаблон", например "GET /api/tasks/{id}".
+     *
+     * @return Эндпоинт или null, если запрос не дошел до контроллера.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Возвращает допустимое количество обращений к БД для эндпоинта.
+     *
+     * @return Бюджет или null, если он не задан.
+     */
+    public Integer getBudget() {
+        return budget;
+    }
+
+    /**
+     * Возвращает количество обращений к БД.
+     *
+     * @return Количество обращений.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Возвращает суммарное время выполнения запросов в JDBC-драйвере.
+     *
+     * @return Время в миллисекундах.
+     */
+    public double getJdbcMillis() {
+        return jdbcNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * Проверяет, превышен ли бюджет эндпоинта.
+     *
+     * @return true, если бюджет задан и превышен.
+     */
+    public boolean isOverBudget() {
+        return budget != null && count > budget;
+    }
+
+    /**
+     * Возвращает формы запросов, выполненных не меньше указанного количества раз (признак проблемы N+1).
+     *
+     * @param threshold Минимальное количество повторений.
+     * @return Формы запросов с количеством выполнений.
+     */
+    public Map<String, Integer> getRepeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.forEach((shape, executions) -> {
+            if (executions >= threshold) {
+                repeated.put(shape, executions);
+            }
+        });
+        return Collections.unmodifiableMap(repeated);
+    }
+}
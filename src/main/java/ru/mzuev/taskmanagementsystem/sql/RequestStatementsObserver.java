@@ -0,0 +1,15 @@
+package ru.mzuev.taskmanagementsystem.sql;
+
+/**
+ * Получатель статистики SQL-запросов по завершении каждого HTTP-запроса. Реализации-бины вызываются
+ * StatementBudgetFilter в потоке запроса и должны работать быстро.
+ */
+public interface RequestStatementsObserver {
+
+    /**
+     * Вызывается после обработки HTTP-запроса.
+     *
+     * @param statements Статистика SQL-запросов.
+     */
+    void requestCompleted(RequestStatements statements);
+}
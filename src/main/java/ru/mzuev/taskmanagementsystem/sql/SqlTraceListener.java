@@ -0,0 +1,64 @@
+package ru.mzuev.taskmanagementsystem.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Слушатель datasource-proxy, заменяющий spring.jpa.show-sql: в лог ru.mzuev.taskmanagementsystem.sql.trace
+ * записываются запросы дольше порога sql.trace.slow-threshold (уровень WARN) и случайная выборка остальных
+ * с долей sql.trace.sample-rate (уровень INFO). Текст запроса пишется в форме без литералов
+ * (см. StatementCountingListener.shape), значения параметров в лог не попадают.
+ */
+class SqlTraceListener implements QueryExecutionListener {
+
+    private static final Logger TRACE_LOG = LoggerFactory.getLogger("ru.mzuev.taskmanagementsystem.sql.trace");
+
+    private final double sampleRate;
+    private final long slowThresholdMillis;
+
+    /**
+     * Создает слушатель.
+     *
+     * @param sampleRate Доля запросов, попадающих в лог (от 0 до 1).
+     * @param slowThreshold Длительность, начиная с которой запрос считается медленным и пишется в лог всегда.
+     */
+    SqlTraceListener(double sampleRate, Duration slowThreshold) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sql.trace.sample-rate должен быть от 0 до 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        this.slowThresholdMillis = slowThreshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        LoggingEventBuilder event;
+        if (elapsed >= slowThresholdMillis) {
+            event = TRACE_LOG.atWarn().setMessage("Медленный SQL-запрос");
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            event = TRACE_LOG.atInfo().setMessage("SQL-запрос");
+        } else {
+            return;
+        }
+        RequestStatements statements = RequestStatements.current();
+        event.addKeyValue("sql", queryInfoList.isEmpty() ? "" : StatementCountingListener.shape(queryInfoList.get(0).getQuery()))
+                .addKeyValue("duration_ms", elapsed)
+                .addKeyValue("batch_size", execInfo.isBatch() ? execInfo.getBatchSize() : 0)
+                .addKeyValue("success", execInfo.isSuccess())
+                .addKeyValue("endpoint", statements != null ? statements.getEndpoint() : null)
+                .log();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.mzuev.taskmanagementsystem.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Учет SQL-запросов по HTTP-запросам: источник данных оборачивается в datasource-proxy, который сообщает
+ * о каждом обращении к БД, StatementBudgetFilter ведет статистику каждого HTTP-запроса,
+ * а StatementBudgetInterceptor назначает запросу эндпоинт и бюджет. Тот же прокси пишет трассировку SQL
+ * (медленные запросы и выборку остальных, см. SqlTraceListener).
+ * Выключается настройкой sql.budget.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.budget.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementBudgetConfig implements WebMvcConfigurer {
+
+    private final StatementBudgetInterceptor statementBudgetInterceptor;
+
+    /**
+     * Создает конфигурацию.
+     *
+     * @param statementBudgetInterceptor Перехватчик, назначающий бюджет эндпоинта.
+     */
+    public StatementBudgetConfig(StatementBudgetInterceptor statementBudgetInterceptor) {
+        this.statementBudgetInterceptor = statementBudgetInterceptor;
+    }
+
+    /**
+     * Оборачивает источник данных приложения в datasource-proxy.
+     *
+     * @param environment Окружение, из которого читаются настройки трассировки SQL
+     *                    (постобработчик создается раньше, чем обрабатываются аннотации @Value).
+     * @return Постобработчик бинов.
+     */
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor(Environment environment) {
+        StatementCountingListener listener = new StatementCountingListener();
+        SqlTraceListener traceListener = new SqlTraceListener(
+                environment.getProperty("sql.trace.sample-rate", Double.class, 0.0),
+                DurationStyle.detectAndParse(environment.getProperty("sql.trace.slow-threshold", "200ms")));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource).name(beanName)
+                            .listener(listener)
+                            .listener(traceListener)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementBudgetInterceptor);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.mzuev.taskmanagementsystem.sql;
+
+/**
+ * Исключение, выбрасываемое перед выполнением SQL-запроса, который превышает бюджет эндпоинта
+ * (режим sql.budget.mode=fail).
+ */
+public class StatementBudgetExceededException extends RuntimeException {
+
+    /**
+     * Создает исключение с сообщением о превышении бюджета.
+     *
+     * @param endpoint Эндпоинт.
+     * @param budget Допустимое количество обращений к БД.
+     */
+    public StatementBudgetExceededException(String endpoint, int budget) {
+        super("Эндпоинт " + endpoint + " превысил бюджет в " + budget + " SQL-запросов");
+    }
+}
@@ -0,0 +1,113 @@
+package ru.mzuev.taskmanagementsystem.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ведет статистику SQL-запросов каждого HTTP-запроса (см. RequestStatements) и по его завершении:
+ * публикует метрики http.server.requests.statements (количество обращений к БД) и http.server.requests.jdbc
+ * (время JDBC) по эндпоинтам, записывает в лог превышение бюджета эндпоинта и повторяющиеся запросы одной формы
+ * (признак проблемы N+1, порог sql.budget.repeat-threshold), передает статистику получателям
+ * RequestStatementsObserver. Фильтр стоит перед фильтрами Spring Security, чтобы учитывать и запросы аутентификации.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "sql.budget.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final List<RequestStatementsObserver> observers;
+    private final int repeatThreshold;
+
+    /**
+     * Создает фильтр.
+     *
+     * @param meterRegistry Реестр метрик.
+     * @param observers Получатели статистики.
+     * @param repeatThreshold Количество выполнений запроса одной формы, начиная с которого он считается повторяющимся.
+     */
+    public StatementBudgetFilter(MeterRegistry meterRegistry,
+                                 List<RequestStatementsObserver> observers,
+                                 @Value("${sql.budget.repeat-threshold:5}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.observers = observers;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStatements statements = RequestStatements.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatements.end();
+            completed(request, statements);
+        }
+    }
+
+    private void completed(HttpServletRequest request, RequestStatements statements) {
+        String endpoint = statements.getEndpoint();
+        String uri = endpoint != null ? endpoint.substring(endpoint.indexOf(' ') + 1) : UNKNOWN_URI;
+        DistributionSummary.builder("http.server.requests.statements")
+                .description("Количество SQL-запросов на HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.getCount());
+        Timer.builder("http.server.requests.jdbc")
+                .description("Суммарное время SQL-запросов на HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        if (statements.isOverBudget()) {
+            violation(request, uri, "budget");
+            log.warn("Эндпоинт {} выполнил {} SQL-запросов при бюджете {} ({} мс в JDBC)",
+                    endpoint, statements.getCount(), statements.getBudget(), String.format("%.1f", statements.getJdbcMillis()));
+        }
+        Map<String, Integer> repeated = statements.getRepeatedShapes(repeatThreshold);
+        if (!repeated.isEmpty()) {
+            violation(request, uri, "repeated");
+            repeated.forEach((shape, executions) ->
+                    log.warn("Возможная проблема N+1: эндпоинт {} выполнил {} раз запрос {}",
+                            endpoint != null ? endpoint : request.getMethod() + " " + request.getRequestURI(), executions, shape));
+        }
+
+        for (RequestStatementsObserver observer : observers) {
+            observer.requestCompleted(statements);
+        }
+    }
+
+    private void violation(HttpServletRequest request, String uri, String type) {
+        Counter.builder("sql.budget.violations")
+                .description("HTTP-запросы, превысившие бюджет SQL-запросов или повторяющие запрос одной формы")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .tag("type", type)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.mzuev.taskmanagementsystem.sql;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Назначает HTTP-запросу эндпоинт ("МЕТОД шаблон", например "GET /api/tasks/{id}") и бюджет SQL-запросов.
+ * Бюджеты задаются настройкой sql.budget.endpoints списком через запятую: "GET /api/tasks/{id}=3,POST /api/comments=5";
+ * для остальных эндпоинтов действует sql.budget.default-max-statements (0 - без ограничения).
+ * В режиме sql.budget.mode=fail запрос, превышающий бюджет, прерывается исключением
+ * StatementBudgetExceededException; в режиме log (по умолчанию) превышение только записывается в лог.
+ */
+@Component
+@ConditionalOnProperty(name = "sql.budget.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementBudgetInterceptor implements HandlerInterceptor {
+
+    private final Map<String, Integer> budgets = new HashMap<>();
+    private final Integer defaultBudget;
+    private final boolean failOnExceed;
+
+    /**
+     * Создает перехватчик.
+     *
+     * @param endpoints Бюджеты эндпоинтов.
+     * @param defaultMaxStatements Бюджет остальных эндпоинтов (0 - без ограничения).
+     * @param mode Реакция на превышение: log или fail.
+     */
+    public StatementBudgetInterceptor(@Value("${sql.budget.endpoints:}") String endpoints,
+                                      @Value("${sql.budget.default-max-statements:0}") int defaultMaxStatements,
+                                      @Value("${sql.budget.mode:log}") String mode) {
+        for (String entry : endpoints.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Бюджет эндпоинта должен иметь вид \"МЕТОД шаблон=N\": " + entry);
+            }
+            budgets.put(entry.substring(0, separator).trim().replaceAll("\\s+", " "),
+                    Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        this.defaultBudget = defaultMaxStatements > 0 ? defaultMaxStatements : null;
+        this.failOnExceed = switch (mode) {
+            case "log" -> false;
+            case "fail" -> true;
+            default -> throw new IllegalArgumentException("sql.budget.mode должен быть log или fail: " + mode);
+        };
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatements statements = RequestStatements.current();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (statements != null && pattern != null) {
+            String endpoint = request.getMethod() + " " + pattern;
+            statements.limit(endpoint, budgets.getOrDefault(endpoint, defaultBudget), failOnExceed);
+        }
+        return true;
+    }
+}
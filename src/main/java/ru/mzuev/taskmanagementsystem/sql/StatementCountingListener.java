@@ -0,0 +1,52 @@
+package ru.mzuev.taskmanagementsystem.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Слушатель datasource-proxy: учитывает каждое обращение к БД в статистике текущего HTTP-запроса
+ * (см. RequestStatements). Вне HTTP-запросов ничего не делает.
+ */
+class StatementCountingListener implements QueryExecutionListener {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestStatements statements = RequestStatements.current();
+        if (statements != null) {
+            String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+            statements.beforeStatement(shape(sql), execInfo.isBatch());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestStatements statements = RequestStatements.current();
+        if (statements != null) {
+            statements.afterStatement();
+        }
+    }
+
+    /**
+     * Приводит запрос к форме, одинаковой для разных значений параметров: литералы заменяются на ?,
+     * списки IN любой длины сворачиваются в (?), пробелы нормализуются.
+     *
+     * @param sql Текст запроса.
+     * @return Форма запроса.
+     */
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,34 @@
+-- Исходная схема, ранее создававшаяся Hibernate через ddl-auto=update
+
+create table users
+(
+    id       bigint generated by default as identity primary key,
+    email    varchar(255) not null,
+    password varchar(255) not null,
+    role     varchar(255) not null,
+    constraint uk_users_email unique (email)
+);
+
+create table tasks
+(
+    id          bigint generated by default as identity primary key,
+    title       varchar(255) not null,
+    description varchar(255),
+    status      varchar(255) not null,
+    priority    varchar(255) not null,
+    author_id   bigint       not null,
+    executor_id bigint,
+    constraint fk_tasks_author foreign key (author_id) references users (id),
+    constraint fk_tasks_executor foreign key (executor_id) references users (id)
+);
+
+create table comments
+(
+    id         bigint generated by default as identity primary key,
+    content    varchar(255) not null,
+    created_at timestamp(6) not null,
+    task_id    bigint       not null,
+    user_id    bigint,
+    constraint fk_comments_task foreign key (task_id) references tasks (id),
+    constraint fk_comments_user foreign key (user_id) references users (id)
+);
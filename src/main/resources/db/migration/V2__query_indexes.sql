@@ -0,0 +1,20 @@
+-- Индексы под фильтры и порядок сортировки репозиториев
+
+-- TaskRepository.findByAuthorId / findDTOByAuthorIdAfter: author_id = ? [and id > ?] order by id
+create index idx_tasks_author_id on tasks (author_id, id);
+
+-- TaskRepository.findByExecutorId / findDTOByExecutorIdAfter: executor_id = ? [and id > ?] order by id
+create index idx_tasks_executor_id on tasks (executor_id, id);
+
+-- Уникальность названия задачи обеспечивается самой БД.
+-- До появления ограничения названия проверялись только приложением, поэтому в базе, подключенной через
+-- baseline-on-migrate, могут оказаться повторы (например, после одновременного создания задач).
+-- Самая ранняя задача сохраняет название, к остальным дописывается " #<id>" (с обрезкой до 255 символов).
+update tasks t
+set title = left(t.title, 255 - length(' #' || t.id)) || ' #' || t.id
+where exists (select 1 from tasks d where d.title = t.title and d.id < t.id);
+
+alter table tasks add constraint uk_tasks_title unique (title);
+
+-- CommentRepository.findByTaskId / findDTOByTaskIdAfter: task_id = ? [and (created_at, id) > (?, ?)] order by created_at, id
+create index idx_comments_task_id on comments (task_id, created_at, id);
@@ -0,0 +1,14 @@
+-- Transactional outbox: события изменения задач записываются в той же транзакции, что и само изменение,
+-- и удаляются ретранслятором после публикации (см. OutboxWriter, OutboxRelay)
+create table outbox_events
+(
+    id             bigint generated by default as identity primary key,
+    aggregate_type varchar(50)   not null,
+    aggregate_id   bigint        not null,
+    event_type     varchar(50)   not null,
+    payload        varchar(4000) not null,
+    created_at     timestamp(6)  not null
+);
+
+-- OutboxRelay: проверка, нет ли более раннего неопубликованного события того же агрегата
+create index idx_outbox_events_aggregate on outbox_events (aggregate_type, aggregate_id, id);
@@ -0,0 +1,2 @@
+-- Версия задачи для оптимистической блокировки и ETag (Task.version)
+alter table tasks add column version bigint default 0 not null;
@@ -0,0 +1,3 @@
+-- Версия токенов пользователя (User.tokenVersion): увеличивается при отзыве токенов и переживает перезапуск,
+-- чтобы экземпляр после перезапуска не выдавал токены с версией, уже отозванной на других экземплярах
+alter table users add column token_version bigint default 0 not null;
@@ -0,0 +1,119 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный тест веб-слоя: 1000 одновременных клиентов читают задачу по идентификатору,
+ * по завершении выводятся пропускная способность и перцентили задержки. Подклассы задают режим потоков Tomcat.
+ * Запуск: mvn test -Pload-test (режим виртуальных потоков - только при сборке и запуске на Java 21).
+ * Для результатов, близких к реальным, тест следует запускать против PostgreSQL
+ * (-Dspring.datasource.url=...), так как запросы к H2 в памяти почти не блокируют поток.
+ */
+@Tag("load")
+abstract class AbstractWebTierLoadTest {
+
+    private static final int CLIENTS = 1000;
+    private static final int REQUESTS_PER_CLIENT = 20;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @LocalServerPort
+    private int port;
+
+    /**
+     * Название режима для отчета.
+     *
+     * @return Название режима.
+     */
+    protected abstract String mode();
+
+    @Test
+    void getTaskById_ConcurrentClients_ShouldReportThroughputAndLatency() throws Exception {
+        AuthRequest adminRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRequest, String.class);
+        String token = "Bearer " + restTemplate.postForObject("/api/auth/login", adminRequest, AuthResponse.class).getToken();
+
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle("Load Task");
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(userService.findDTOByEmail("admin@test.com").getId());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", token);
+        Long taskId = restTemplate.postForEntity("/api/tasks", new HttpEntity<>(taskDTO, headers), TaskDTO.class)
+                .getBody().getId();
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/" + taskId))
+                .header("Authorization", token)
+                .GET()
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long[] latencies = new long[REQUESTS_PER_CLIENT];
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long begin = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[r] = response.statusCode() == 200 ? System.nanoTime() - begin : -1;
+                    }
+                    return latencies;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            int index = 0;
+            for (Future<long[]> result : results) {
+                long[] clientLatencies = result.get();
+                System.arraycopy(clientLatencies, 0, latencies, index, clientLatencies.length);
+                index += clientLatencies.length;
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+
+            Arrays.sort(latencies);
+            assertThat(latencies[0]).as("все запросы успешны").isPositive();
+            System.out.printf("[load] mode=%s clients=%d requests=%d throughput=%.0f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                    mode(), CLIENTS, latencies.length, latencies.length / seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static double percentile(long[] sortedLatencies, double quantile) {
+        int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,212 @@
+package ru.mzuev.taskmanagementsystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.CommentRequest;
+import ru.mzuev.taskmanagementsystem.dto.StatusUpdateRequest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сквозной нагрузочный тест HTTP API по открытой модели. Генерирует в БД пользователей, задачи и комментарии
+ * с неравномерным распределением (см. LoadTestDataGenerator), входит в систему пулом пользователей-исполнителей
+ * и подает смесь чтений и записей с постоянной частотой (см. OpenModelLoadDriver). По каждой операции выводятся
+ * перцентили задержки с поправкой на coordinated omission, гистограммы сохраняются в target/load-test/*.hgrm.
+ * Запуск: mvn test -Pload-test -Dtest=ApiLoadTest. Параметры задаются системными свойствами, например
+ * -Dload.rate=500 -Dload.duration=60s -Dload.mix=task.get=80,task.status=20. Для результатов, близких
+ * к реальным, тест следует запускать против PostgreSQL (-Dspring.datasource.url=...).
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"sql.trace.sample-rate=0", "spring.jpa.properties.hibernate.generate_statistics=false"})
+@ActiveProfiles("test")
+public class ApiLoadTest {
+
+    private static final String PASSWORD = "loadPass";
+    private static final long SEED = 42;
+    // Допустимая доля ошибок (конфликты версий 409/412 ошибками не считаются)
+    private static final double MAX_ERROR_RATIO = 0.01;
+    private static final String[] STATUSES = {"в очереди", "в работе", "на проверке", "завершена"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @LocalServerPort
+    private int port;
+
+    @Value("${load.users:1000}")
+    private int users;
+    @Value("${load.tasks:20000}")
+    private int tasks;
+    @Value("${load.comments-per-task:3}")
+    private int commentsPerTask;
+    @Value("${load.sessions:100}")
+    private int sessions;
+    @Value("${load.rate:100}")
+    private double rate;
+    @Value("${load.warmup:10s}")
+    private String warmup;
+    @Value("${load.duration:30s}")
+    private String duration;
+    @Value("${load.mix:task.get=40,comment.list=25,task.list=10,task.status=10,comment.create=10,auth.login=1}")
+    private String mix;
+
+    @Test
+    void apiMix_FixedArrivalRate_ShouldReportLatencyPerEndpoint() throws Exception {
+        LoadTestDataGenerator.Dataset dataset = new LoadTestDataGenerator(jdbcTemplate, SEED)
+                .generate(users, tasks, commentsPerTask, passwordEncoder.encode(PASSWORD));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        String adminToken = login(client, LoadTestDataGenerator.email(0));
+        Map<Long, String> emails = new HashMap<>();
+        for (int i = 0; i < dataset.userIds().length; i++) {
+            emails.put(dataset.userIds()[i], LoadTestDataGenerator.email(i));
+        }
+        // Сессии — самые активные исполнители: их задачи и комментарии и составляют основную нагрузку
+        List<Session> pool = Arrays.stream(dataset.userRanks()).boxed()
+                .filter(userId -> dataset.tasksByExecutor().containsKey(userId) && userId != dataset.userIds()[0])
+                .limit(sessions)
+                .parallel()
+                .map(userId -> new Session(emails.get(userId), login(client, emails.get(userId)),
+                        dataset.tasksByExecutor().get(userId).stream().mapToLong(Long::longValue).toArray()))
+                .toList();
+        assertThat(pool).isNotEmpty();
+
+        LoadTestDataGenerator.Zipf executorZipf = new LoadTestDataGenerator.Zipf(dataset.userRanks().length, 1.1);
+        AtomicLong commentCounter = new AtomicLong();
+        Map<String, Function<SplittableRandom, HttpRequest>> catalog = Map.of(
+                "task.get", random -> {
+                    Session session = pick(pool, random);
+                    return get("/api/tasks/" + session.anyTask(random), session.token());
+                },
+                "comment.list", random -> {
+                    Session session = pick(pool, random);
+                    return get("/api/comments/by-task/" + session.anyTask(random) + "/cursor?size=20", session.token());
+                },
+                "task.list", random -> get("/api/tasks/by-executor/cursor?size=20&executorId="
+                        + dataset.userRanks()[executorZipf.sample(random)], adminToken),
+                "task.status", random -> {
+                    Session session = pick(pool, random);
+                    return put("/api/tasks/" + session.anyTask(random) + "/status",
+                            new StatusUpdateRequest(STATUSES[random.nextInt(STATUSES.length)]), session.token());
+                },
+                "comment.create", random -> {
+                    Session session = pick(pool, random);
+                    return post("/api/comments", new CommentRequest("Load comment " + commentCounter.incrementAndGet(),
+                            session.anyTask(random)), session.token());
+                },
+                "auth.login", random -> post("/api/auth/login", new AuthRequest(pick(pool, random).email(), PASSWORD), null));
+
+        List<OpenModelLoadDriver.Operation> operations = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] nameAndWeight = entry.trim().split("=");
+            Function<SplittableRandom, HttpRequest> request = catalog.get(nameAndWeight[0]);
+            assertThat(request).as("операция %s", nameAndWeight[0]).isNotNull();
+            operations.add(new OpenModelLoadDriver.Operation(nameAndWeight[0], Integer.parseInt(nameAndWeight[1]), request));
+        }
+
+        Map<String, OpenModelLoadDriver.Result> results = new OpenModelLoadDriver(client, operations)
+                .run(rate, DurationStyle.detectAndParse(warmup), DurationStyle.detectAndParse(duration), SEED);
+
+        System.out.printf("[load] users=%d tasks=%d comments=%d sessions=%d rate=%.0f/s%n",
+                users, tasks, (long) tasks * commentsPerTask, pool.size(), rate);
+        for (Map.Entry<String, OpenModelLoadDriver.Result> entry : results.entrySet()) {
+            OpenModelLoadDriver.Result result = entry.getValue();
+            System.out.println("[load] " + result.summary(entry.getKey()));
+            result.writePercentiles(Path.of("target", "load-test", entry.getKey() + ".hgrm"));
+        }
+        for (Map.Entry<String, OpenModelLoadDriver.Result> entry : results.entrySet()) {
+            OpenModelLoadDriver.Result result = entry.getValue();
+            assertThat(result.count()).as("ответы на %s", entry.getKey()).isPositive();
+            assertThat((double) result.errors() / result.count()).as("доля ошибок %s", entry.getKey())
+                    .isLessThanOrEqualTo(MAX_ERROR_RATIO);
+        }
+    }
+
+    private String login(HttpClient client, String email) {
+        try {
+            HttpResponse<String> response = client.send(post("/api/auth/login", new AuthRequest(email, PASSWORD), null),
+                    HttpResponse.BodyHandlers.ofString());
+            return "Bearer " + objectMapper.readValue(response.body(), AuthResponse.class).getToken();
+        } catch (Exception ex) {
+            throw new IllegalStateException("Не удалось войти как " + email, ex);
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", token).GET().build();
+    }
+
+    private HttpRequest put(String path, Object body, String token) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", token).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(json(body))).build();
+    }
+
+    private HttpRequest post(String path, Object body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path)).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json(body)));
+        if (token != null) {
+            builder.header("Authorization", token);
+        }
+        return builder.build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path.replace(" ", "%20"));
+    }
+
+    private byte[] json(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Session pick(List<Session> pool, SplittableRandom random) {
+        return pool.get(random.nextInt(pool.size()));
+    }
+
+    /**
+     * Пользователь, вошедший в систему, и задачи, в которых он исполнитель.
+     *
+     * @param email Email пользователя.
+     * @param token Заголовок Authorization.
+     * @param taskIds Идентификаторы задач пользователя.
+     */
+    private record Session(String email, String token, long[] taskIds) {
+
+        long anyTask(SplittableRandom random) {
+            return taskIds[random.nextInt(taskIds.length)];
+        }
+    }
+}
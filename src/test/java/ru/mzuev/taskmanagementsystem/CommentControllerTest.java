@@ -5,18 +5,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
 import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.CommentDTO;
 import ru.mzuev.taskmanagementsystem.dto.CommentRequest;
+import ru.mzuev.taskmanagementsystem.dto.CursorPage;
 import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
 import ru.mzuev.taskmanagementsystem.service.UserService;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// Маленькие срезы, чтобы потоковый ответ собирался из нескольких запросов к БД
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "streaming.chunk-size=2")
 @ActiveProfiles("test")
 // Для сброса контекста перед каждым тестом
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
@@ -96,4 +103,62 @@ public class CommentControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
         assertThat(response.getBody()).contains("Доступ запрещен");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetCommentsByTaskCursor_ShouldReturnCommentsInCreationOrder() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", executorToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        for (int i = 0; i < 3; i++) {
+            CommentRequest commentRequest = new CommentRequest("Comment " + i, createdTaskId);
+            restTemplate.postForEntity("/api/comments", new HttpEntity<>(commentRequest, headers), String.class);
+        }
+
+        List<String> contents = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = "/api/comments/by-task/" + createdTaskId + "/cursor?size=2"
+                    + (cursor != null ? "&cursor=" + cursor : "");
+            ResponseEntity<CursorPage<CommentDTO>> response = restTemplate.exchange(url, HttpMethod.GET,
+                    new HttpEntity<>(headers), new ParameterizedTypeReference<>() {});
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            response.getBody().getContent().forEach(comment -> contents.add(comment.getContent()));
+            cursor = response.getBody().getNextCursor();
+        } while (cursor != null);
+
+        assertThat(contents).containsExactly("Comment 0", "Comment 1", "Comment 2");
+    }
+
+    @Test
+    public void testStreamCommentsByTask_ShouldReturnAllCommentsAsNdjson() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", executorToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        for (int i = 0; i < 5; i++) {
+            CommentRequest commentRequest = new CommentRequest("Comment " + i, createdTaskId);
+            restTemplate.postForEntity("/api/comments", new HttpEntity<>(commentRequest, headers), String.class);
+        }
+
+        ResponseEntity<String> response = restTemplate.exchange("/api/comments/by-task/" + createdTaskId + "/stream",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        List<String> lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize(5);
+        for (int i = 0; i < 5; i++) {
+            assertThat(lines.get(i)).contains("\"content\":\"Comment " + i + "\"");
+        }
+    }
+
+    @Test
+    public void testStreamCommentsByTask_UnknownTask_ShouldReturnNotFound() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", executorToken);
+
+        ResponseEntity<String> response = restTemplate.exchange("/api/comments/by-task/999999/stream",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
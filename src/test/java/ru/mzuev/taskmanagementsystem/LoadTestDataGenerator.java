@@ -0,0 +1,177 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор синтетических данных для нагрузочных тестов. Заполняет БД напрямую через JDBC пакетами:
+ * пользователей, задачи и комментарии с неравномерным (по закону Ципфа) распределением — немногие пользователи
+ * являются авторами и исполнителями большинства задач, а немногие задачи собирают большинство комментариев.
+ * Первый пользователь — администратор. У всех пользователей один пароль, хеш вычисляется один раз.
+ */
+final class LoadTestDataGenerator {
+
+    // Показатели распределения Ципфа: чем больше, тем сильнее перекос в пользу первых элементов
+    private static final double USER_SKEW = 1.1;
+    private static final double TASK_SKEW = 1.0;
+    // Доля задач без исполнителя
+    private static final double UNASSIGNED_RATIO = 0.05;
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] STATUSES = {"в очереди", "в работе", "на проверке", "завершена"};
+    private static final String[] PRIORITIES = {"низкий", "средний", "высокий"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SplittableRandom random;
+
+    /**
+     * Создает генератор.
+     *
+     * @param jdbcTemplate JdbcTemplate тестовой БД.
+     * @param seed Начальное значение генератора случайных чисел (одинаковое значение дает одинаковые данные).
+     */
+    LoadTestDataGenerator(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Заполняет БД.
+     *
+     * @param users Количество пользователей.
+     * @param tasks Количество задач.
+     * @param commentsPerTask Среднее количество комментариев на задачу.
+     * @param passwordHash Хеш пароля всех пользователей.
+     * @return Сгенерированные данные.
+     */
+    Dataset generate(int users, int tasks, int commentsPerTask, String passwordHash) {
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            userRows.add(new Object[]{email(i), passwordHash, i == 0 ? "ROLE_ADMIN" : "ROLE_USER"});
+        }
+        batchInsert("insert into users (email, password, role) values (?, ?, ?)", userRows);
+        long[] userIds = ids("select id from users where email like 'load-user-%' order by id");
+        // Перемешиваем, чтобы самые активные пользователи не совпадали с первыми по идентификатору (администратором)
+        long[] userRanks = shuffled(userIds);
+
+        Zipf userZipf = new Zipf(users, USER_SKEW);
+        List<Object[]> taskRows = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Long executorId = random.nextDouble() < UNASSIGNED_RATIO ? null : userRanks[userZipf.sample(random)];
+            taskRows.add(new Object[]{"Load task " + i, "Description of load task " + i,
+                    STATUSES[random.nextInt(STATUSES.length)], PRIORITIES[random.nextInt(PRIORITIES.length)],
+                    userRanks[userZipf.sample(random)], executorId});
+        }
+        batchInsert("insert into tasks (title, description, status, priority, author_id, executor_id) values (?, ?, ?, ?, ?, ?)",
+                taskRows);
+
+        Map<Long, List<Long>> tasksByExecutor = new HashMap<>();
+        List<long[]> taskExecutors = jdbcTemplate.query("select id, coalesce(executor_id, 0) from tasks order by id",
+                (resultSet, rowNum) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)});
+        long[] taskIds = new long[taskExecutors.size()];
+        Map<Long, Long> executorByTask = new HashMap<>();
+        for (int i = 0; i < taskIds.length; i++) {
+            long[] row = taskExecutors.get(i);
+            taskIds[i] = row[0];
+            if (row[1] != 0) {
+                executorByTask.put(row[0], row[1]);
+                tasksByExecutor.computeIfAbsent(row[1], id -> new ArrayList<>()).add(row[0]);
+            }
+        }
+        long[] taskRanks = shuffled(taskIds);
+
+        Zipf taskZipf = new Zipf(taskRanks.length, TASK_SKEW);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> commentRows = new ArrayList<>(BATCH_SIZE);
+        long comments = (long) tasks * commentsPerTask;
+        for (long i = 0; i < comments; i++) {
+            long taskId = taskRanks[taskZipf.sample(random)];
+            Long userId = executorByTask.getOrDefault(taskId, userIds[0]);
+            commentRows.add(new Object[]{"Load comment " + i, Timestamp.valueOf(now.minusMinutes(random.nextInt(90 * 24 * 60))),
+                    taskId, userId});
+            if (commentRows.size() == BATCH_SIZE) {
+                batchInsert("insert into comments (content, created_at, task_id, user_id) values (?, ?, ?, ?)", commentRows);
+                commentRows.clear();
+            }
+        }
+        batchInsert("insert into comments (content, created_at, task_id, user_id) values (?, ?, ?, ?)", commentRows);
+
+        return new Dataset(userIds, userRanks, taskRanks, tasksByExecutor);
+    }
+
+    /**
+     * Возвращает email пользователя по порядковому номеру.
+     *
+     * @param index Порядковый номер пользователя.
+     * @return Email.
+     */
+    static String email(int index) {
+        return "load-user-" + index + "@test.com";
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private long[] ids(String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long[] shuffled(long[] values) {
+        long[] result = Arrays.copyOf(values, values.length);
+        for (int i = result.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long value = result[i];
+            result[i] = result[j];
+            result[j] = value;
+        }
+        return result;
+    }
+
+    /**
+     * Сгенерированные данные.
+     *
+     * @param userIds Идентификаторы пользователей в порядке создания (первый — администратор).
+     * @param userRanks Идентификаторы пользователей по убыванию активности (распределение Ципфа).
+     * @param taskRanks Идентификаторы задач по убыванию популярности (распределение Ципфа).
+     * @param tasksByExecutor Задачи каждого исполнителя.
+     */
+    record Dataset(long[] userIds, long[] userRanks, long[] taskRanks, Map<Long, List<Long>> tasksByExecutor) {
+    }
+
+    /**
+     * Распределение Ципфа на номерах 0..n-1: вероятность номера k пропорциональна 1 / (k + 1)^skew.
+     * Выборка — двоичный поиск по предвычисленной функции распределения.
+     */
+    static final class Zipf {
+
+        private final double[] cumulative;
+
+        Zipf(int n, double skew) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1 / Math.pow(k + 1, skew);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.*;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+// Экспорт метрик в тестах по умолчанию отключен
+@AutoConfigureObservability(tracing = false)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class MetricsTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @LocalManagementPort
+    private int managementPort;
+
+    private String adminToken;
+    private Long adminId;
+
+    @BeforeEach
+    void setUp() {
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        adminId = userService.findDTOByEmail("admin@test.com").getId();
+    }
+
+    @Test
+    void prometheus_AfterRequests_ShouldExposeApplicationMetrics() {
+        restTemplate.postForEntity("/api/auth/login", new AuthRequest("admin@test.com", "wrongPass"), String.class);
+        Long taskId = createTask("Metrics Task");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        restTemplate.exchange("/api/tasks/" + taskId, HttpMethod.GET, new HttpEntity<>(headers), TaskDTO.class);
+        headers.set("Authorization", "Bearer invalid");
+        restTemplate.exchange("/api/tasks/" + taskId, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        // Эндпоинт доступен без токена на порту Actuator
+        ResponseEntity<String> response = restTemplate.getForEntity(management("/actuator/prometheus"), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String metrics = response.getBody();
+
+        assertThat(value(metrics, "auth_login_total{", "result=\"success\"")).isEqualTo(1);
+        assertThat(value(metrics, "auth_login_total{", "result=\"failure\"")).isEqualTo(1);
+        assertThat(value(metrics, "auth_token_parse_seconds_count{", "result=\"valid\"")).isGreaterThanOrEqualTo(2);
+        assertThat(value(metrics, "auth_token_parse_seconds_count{", "result=\"invalid\"")).isEqualTo(1);
+        assertThat(value(metrics, "service_invocations_seconds_count{", "class=\"ru.mzuev.taskmanagementsystem.service.TaskService\"",
+                "method=\"createTask\"")).isEqualTo(1);
+        assertThat(value(metrics, "spring_data_repository_invocations_seconds_count{", "repository=\"UserRepository\"")).isPositive();
+        assertThat(value(metrics, "hikaricp_connections_max{")).isPositive();
+        assertThat(value(metrics, "hibernate_statements_total{", "status=\"prepared\"")).isPositive();
+        assertThat(metrics).contains("hibernate_second_level_cache_requests_total{");
+        assertThat(metrics).contains("http_server_requests_seconds_bucket{");
+        assertThat(value(metrics, "cache_gets_total{", "cache=\"principal\"", "result=\"hit\"")).isPositive();
+    }
+
+    @Test
+    void actuator_OnApplicationPort_ShouldNotBePublic() {
+        assertThat(restTemplate.getForEntity("/actuator/prometheus", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(restTemplate.getForEntity("/actuator/health", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.FORBIDDEN);
+        // На порту Actuator без токена открыты только health и prometheus
+        assertThat(restTemplate.getForEntity(management("/actuator/health"), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+        assertThat(restTemplate.getForEntity(management("/actuator/metrics"), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void metrics_WithoutAdminRole_ShouldBeForbidden() {
+        AuthRequest userRequest = new AuthRequest("user@test.com", "userPass");
+        restTemplate.postForEntity("/api/auth/register", userRequest, String.class);
+        String userToken = "Bearer " + restTemplate.postForObject("/api/auth/login", userRequest, AuthResponse.class).getToken();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", userToken);
+        ResponseEntity<String> forbidden = restTemplate.exchange(management("/actuator/metrics"), HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        assertThat(forbidden.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+
+        headers.set("Authorization", adminToken);
+        ResponseEntity<String> allowed = restTemplate.exchange(management("/actuator/metrics/service.invocations"),
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(allowed.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private String management(String path) {
+        return "http://localhost:" + managementPort + path;
+    }
+
+    /**
+     * Возвращает значение первой строки метрики в формате Prometheus, содержащей все указанные фрагменты.
+     */
+    private static double value(String metrics, String name, String... fragments) {
+        return metrics.lines()
+                .filter(line -> line.startsWith(name))
+                .filter(line -> Arrays.stream(fragments).allMatch(line::contains))
+                .mapToDouble(line -> Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1)))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Метрика не найдена: " + name + " " + Arrays.toString(fragments)));
+    }
+
+    private Long createTask(String title) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle(title);
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        return restTemplate.postForEntity("/api/tasks", new HttpEntity<>(taskDTO, headers), TaskDTO.class).getBody().getId();
+    }
+}
@@ -0,0 +1,196 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Нагрузка по открытой модели: запросы отправляются с постоянной частотой по расписанию, независимо от того,
+ * ответил ли сервер на предыдущие (в отличие от замкнутого цикла, где медленный ответ откладывает следующий
+ * запрос и скрывает задержку). Запросы отправляются асинхронно, операция для каждого запроса выбирается
+ * случайно по весам.
+ * Задержка отсчитывается от запланированного, а не фактического момента отправки (поправка на coordinated
+ * omission): если отправка запаздывает, ожидание попадает в задержку. Для сравнения отдельно записывается время
+ * от фактической отправки до ответа. Гистограммы HdrHistogram ведутся по каждой операции в микросекундах.
+ */
+final class OpenModelLoadDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+    private final HttpClient client;
+    private final List<Operation> operations;
+    private final int totalWeight;
+
+    /**
+     * Создает нагрузку.
+     *
+     * @param client HTTP-клиент.
+     * @param operations Операции с весами в смеси.
+     */
+    OpenModelLoadDriver(HttpClient client, List<Operation> operations) {
+        this.client = client;
+        this.operations = operations;
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+    }
+
+    /**
+     * Подает нагрузку и ждет ответов на все отправленные запросы. Запросы, запланированные на время прогрева,
+     * отправляются, но не учитываются в результатах.
+     *
+     * @param requestsPerSecond Частота отправки запросов.
+     * @param warmup Длительность прогрева.
+     * @param duration Длительность замера.
+     * @param seed Начальное значение генератора случайных чисел.
+     * @return Результаты по операциям в порядке их объявления.
+     */
+    Map<String, Result> run(double requestsPerSecond, Duration warmup, Duration duration, long seed) {
+        Map<String, Result> results = new LinkedHashMap<>();
+        operations.forEach(operation -> results.put(operation.name(), new Result()));
+        SplittableRandom random = new SplittableRandom(seed);
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long delay;
+            while ((delay = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            Operation operation = pick(random);
+            HttpRequest request = operation.request().apply(random);
+            Result result = intended >= measureFrom ? results.get(operation.name()) : null;
+            long sent = System.nanoTime();
+            pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (result != null) {
+                            result.record(intended, sent, System.nanoTime(), error == null ? response.statusCode() : -1);
+                        }
+                    }));
+            // Освобождаем ссылки на завершенные запросы, чтобы список не рос на длинных прогонах
+            if (pending.size() >= 10_000) {
+                pending.removeIf(CompletableFuture::isDone);
+            }
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                    .exceptionally(error -> null)
+                    .get(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Не дождались ответов на отправленные запросы", ex);
+        }
+        results.values().forEach(result -> result.seconds = duration.toNanos() / 1e9);
+        return results;
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int point = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            point -= operation.weight();
+            if (point < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Пустая смесь операций");
+    }
+
+    /**
+     * Операция нагрузки.
+     *
+     * @param name Название для отчета.
+     * @param weight Вес в смеси операций.
+     * @param request Построение запроса (вызывается в потоке расписания, должно быть быстрым).
+     */
+    record Operation(String name, int weight, Function<SplittableRandom, HttpRequest> request) {
+    }
+
+    /**
+     * Результаты одной операции.
+     */
+    static final class Result {
+
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private double seconds;
+
+        private void record(long intended, long sent, long completed, int status) {
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(completed - intended), HIGHEST_TRACKABLE_MICROS));
+            serviceTime.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(completed - sent), HIGHEST_TRACKABLE_MICROS));
+            if (status == 409 || status == 412) {
+                conflicts.increment();
+            } else if (status < 200 || status >= 300) {
+                errors.increment();
+            }
+        }
+
+        long count() {
+            return latency.getTotalCount();
+        }
+
+        long conflicts() {
+            return conflicts.sum();
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+
+        /**
+         * Формирует строку отчета: количество и частота ответов, ошибки, перцентили задержки в миллисекундах
+         * (с поправкой) и p99 времени ответа без поправки.
+         *
+         * @param name Название операции.
+         * @return Строка отчета.
+         */
+        String summary(String name) {
+            return String.format("%-16s count=%d rate=%.1f/s conflicts=%d errors=%d p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f ms (без поправки p99=%.2f ms)",
+                    name, count(), count() / seconds, conflicts(), errors(),
+                    millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / 1000.0, millis(serviceTime, 99));
+        }
+
+        /**
+         * Сохраняет распределение задержки (с поправкой) в формате .hgrm для построения графика.
+         *
+         * @param file Файл.
+         * @throws IOException В случае ошибки записи.
+         */
+        void writePercentiles(Path file) throws IOException {
+            Files.createDirectories(file.getParent());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.CommentRequest;
+import ru.mzuev.taskmanagementsystem.dto.StatusUpdateRequest;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.outbox.OutboxMessage;
+import ru.mzuev.taskmanagementsystem.outbox.OutboxRelay;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class OutboxTest {
+
+    private static final Path EVENTS_FILE = createEventsFile();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RecordingListener recordingListener;
+
+    private String adminToken;
+    private Long adminId;
+
+    @DynamicPropertySource
+    static void outboxProperties(DynamicPropertyRegistry registry) {
+        registry.add("outbox.file.path", EVENTS_FILE::toString);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.write(EVENTS_FILE, new byte[0]);
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        adminId = userService.findDTOByEmail("admin@test.com").getId();
+    }
+
+    @Test
+    void relayBatch_ShouldPublishEventsOfEachTaskInOrder() throws IOException {
+        Long firstTaskId = createTask("First Task").getBody().getId();
+        updateStatus(firstTaskId, "в работе");
+        createComment(firstTaskId, "Comment");
+        Long secondTaskId = createTask("Second Task").getBody().getId();
+
+        // В каждую порцию попадает только самое раннее событие задачи
+        assertThat(outboxRelay.relayBatch()).isEqualTo(2);
+        assertThat(outboxRelay.relayBatch()).isEqualTo(1);
+        assertThat(outboxRelay.relayBatch()).isEqualTo(1);
+        assertThat(outboxRelay.relayBatch()).isZero();
+
+        assertThat(recordingListener.messages)
+                .extracting(OutboxMessage::aggregateId, OutboxMessage::eventType)
+                .containsExactly(
+                        tuple(firstTaskId, "CREATED"),
+                        tuple(secondTaskId, "CREATED"),
+                        tuple(firstTaskId, "STATUS_CHANGED"),
+                        tuple(firstTaskId, "COMMENT_ADDED"));
+        assertThat(Files.readAllLines(EVENTS_FILE)).hasSize(4)
+                .first().asString().contains("\"payload\":{\"type\":\"CREATED\"");
+        assertThat(outboxCount()).isZero();
+    }
+
+    @Test
+    void createTask_RolledBack_ShouldNotWriteEvent() {
+        createTask("Duplicate Task");
+        int before = outboxCount();
+
+        ResponseEntity<TaskDTO> response = createTask("Duplicate Task");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(outboxCount()).isEqualTo(before);
+    }
+
+    @Test
+    void relayBatch_EventLockedByAnotherRelay_ShouldSkipItsTaskAndPublishOthers() throws Exception {
+        Long lockedTaskId = createTask("Locked Task").getBody().getId();
+        updateStatus(lockedTaskId, "в работе");
+        Long otherTaskId = createTask("Other Task").getBody().getId();
+
+        // Другой экземпляр ретранслятора держит блокировку первого события задачи
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread otherRelay = new Thread(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("select id from outbox_events where aggregate_id = ? order by id limit 1 for update",
+                    lockedTaskId);
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        otherRelay.start();
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertThat(outboxRelay.relayBatch()).isEqualTo(1);
+            assertThat(recordingListener.messages).singleElement()
+                    .extracting(OutboxMessage::aggregateId).isEqualTo(otherTaskId);
+        } finally {
+            release.countDown();
+            otherRelay.join();
+        }
+    }
+
+    private int outboxCount() {
+        return jdbcTemplate.queryForObject("select count(*) from outbox_events", Integer.class);
+    }
+
+    private ResponseEntity<TaskDTO> createTask(String title) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle(title);
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+        return restTemplate.postForEntity("/api/tasks", new HttpEntity<>(taskDTO, authHeaders()), TaskDTO.class);
+    }
+
+    private void updateStatus(Long taskId, String status) {
+        restTemplate.exchange("/api/tasks/" + taskId + "/status", HttpMethod.PUT,
+                new HttpEntity<>(new StatusUpdateRequest(status), authHeaders()), TaskDTO.class);
+    }
+
+    private void createComment(Long taskId, String content) {
+        restTemplate.postForEntity("/api/comments", new HttpEntity<>(new CommentRequest(content, taskId), authHeaders()), String.class);
+    }
+
+    private HttpHeaders authHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        return headers;
+    }
+
+    private static Path createEventsFile() {
+        try {
+            Path file = Files.createTempFile("outbox-events", ".ndjson");
+            file.toFile().deleteOnExit();
+            return file;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingListenerConfig {
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener {
+        private final List<OutboxMessage> messages = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void onMessage(OutboxMessage message) {
+            messages.add(message);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Нагрузочный тест с пулом платформенных потоков Tomcat (режим по умолчанию).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"spring.threads.virtual.enabled=false", "sql.trace.sample-rate=0"})
+@ActiveProfiles("test")
+public class PlatformThreadLoadTest extends AbstractWebTierLoadTest {
+
+    @Override
+    protected String mode() {
+        return "platform-threads";
+    }
+}
@@ -0,0 +1,160 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.mzuev.taskmanagementsystem.StatementCapture.CapturedStatement;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.CommentRequest;
+import ru.mzuev.taskmanagementsystem.dto.CursorPage;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.repository.CommentRepository;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Полнотекстовый поиск на настоящем PostgreSQL (миграция V6, триггеры и TaskSearchRepository с
+ * tasks.search.full-text=true). PostgreSQL запускается в контейнере Testcontainers; без Docker тесты пропускаются.
+ * Отдельно: mvn test -Dgroups=postgres.
+ */
+@Tag("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "tasks.search.full-text=true"})
+@ActiveProfiles("test")
+@Import(StatementCapture.Config.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class PostgresSearchTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13");
+
+    private static final ParameterizedTypeReference<CursorPage<TaskDTO>> TASK_PAGE = new ParameterizedTypeReference<>() {
+    };
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private String adminToken;
+    private Long adminId;
+
+    @BeforeEach
+    void setUp() {
+        // Контейнер общий для всех тестов класса, каждый тест начинает с пустых таблиц
+        jdbcTemplate.execute("truncate table users, tasks, comments, outbox_events restart identity cascade");
+
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        adminId = userService.findDTOByEmail("admin@test.com").getId();
+    }
+
+    @Test
+    void search_ShouldMatchWordFormsAndRankTitleAboveDescriptionAndComments() {
+        Long titleTaskId = createTask("Квартальный отчет", "Собрать цифры");
+        Long descriptionTaskId = createTask("Продажи", "Подготовить отчетность для клиента");
+        Long commentTaskId = createTask("Совещание", "Обсудить планы");
+        createTask("Релиз", "Выпустить версию");
+        createComment(commentTaskId, "После совещания нужен отчет");
+
+        ResponseEntity<CursorPage<TaskDTO>> response = search("/api/tasks/search?query=отчеты");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getContent()).extracting(TaskDTO::getId)
+                .containsExactly(titleTaskId, descriptionTaskId, commentTaskId);
+
+        // Все слова запроса должны встречаться в задаче, хотя бы в разных полях
+        ResponseEntity<CursorPage<TaskDTO>> allTerms = search("/api/tasks/search?query=совещание отчет");
+        assertThat(allTerms.getBody().getContent()).extracting(TaskDTO::getId).containsExactly(commentTaskId);
+    }
+
+    @Test
+    void search_ShouldKeepCommentWordsAfterTaskUpdate() {
+        Long taskId = createTask("Совещание", "Обсудить планы");
+        createComment(taskId, "Нужен бюджет");
+        createComment(taskId, "Пригласить бухгалтерию");
+
+        TaskDTO update = task("Планерка", "Обсудить планы");
+        ResponseEntity<TaskDTO> updated = restTemplate.exchange("/api/tasks/" + taskId, HttpMethod.PUT,
+                new HttpEntity<>(update, headers()), TaskDTO.class);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        assertThat(search("/api/tasks/search?query=планерка бюджет бухгалтерия").getBody().getContent())
+                .extracting(TaskDTO::getId).containsExactly(taskId);
+        assertThat(search("/api/tasks/search?query=совещание").getBody().getContent()).isEmpty();
+    }
+
+    @Test
+    void findDTOByTaskIdAfter_ShouldUseCommentIndex() {
+        jdbcTemplate.update("insert into tasks (title, status, priority, author_id) "
+                + "select 'Index task ' || g, 'в очереди', 'низкий', ? from generate_series(1, 2000) g", adminId);
+        jdbcTemplate.update("insert into comments (content, created_at, task_id, user_id) "
+                + "select 'Comment', now() - (n || ' minutes')::interval, t.id, t.author_id "
+                + "from tasks t, generate_series(1, 5) n");
+        jdbcTemplate.execute("analyze");
+        Long taskId = jdbcTemplate.queryForObject("select min(id) from tasks", Long.class);
+
+        CapturedStatement first = StatementCapture.single(
+                () -> commentRepository.findDTOByTaskIdFirst(taskId, Limit.of(20)));
+        assertThat(StatementCapture.explain(jdbcTemplate, first)).contains("idx_comments_task_id");
+
+        CapturedStatement after = StatementCapture.single(() -> commentRepository.findDTOByTaskIdAfter(
+                taskId, LocalDateTime.of(2000, 1, 1, 0, 0), 0L, Limit.of(20)));
+        assertThat(StatementCapture.explain(jdbcTemplate, after)).contains("idx_comments_task_id");
+    }
+
+    private ResponseEntity<CursorPage<TaskDTO>> search(String url) {
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers()), TASK_PAGE);
+    }
+
+    private Long createTask(String title, String description) {
+        return restTemplate.postForEntity("/api/tasks", new HttpEntity<>(task(title, description), headers()), TaskDTO.class)
+                .getBody().getId();
+    }
+
+    private TaskDTO task(String title, String description) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle(title);
+        taskDTO.setDescription(description);
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+        return taskDTO;
+    }
+
+    private void createComment(Long taskId, String content) {
+        restTemplate.postForEntity("/api/comments", new HttpEntity<>(new CommentRequest(content, taskId), headers()), String.class);
+    }
+
+    private HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        return headers;
+    }
+}
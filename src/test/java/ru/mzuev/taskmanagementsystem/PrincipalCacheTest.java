@@ -0,0 +1,79 @@
+package ru.mzuev.taskmanagementsystem;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.security.CustomUserDetailsService;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class PrincipalCacheTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String adminToken;
+    private Long adminId;
+
+    @BeforeEach
+    void setUp() {
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        adminId = userService.findDTOByEmail("admin@test.com").getId();
+    }
+
+    @Test
+    void changeRole_ShouldEvictCachedPrincipal() {
+        assertThat(userDetailsService.loadCachedUserByUsername("admin@test.com").getAuthorities())
+                .extracting(Object::toString).containsExactly("ROLE_ADMIN");
+
+        userService.changeRole(adminId, "ROLE_USER");
+
+        assertThat(userDetailsService.loadCachedUserByUsername("admin@test.com").getAuthorities())
+                .extracting(Object::toString).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void authenticatedRequests_ShouldPublishHitAndMissCounters() {
+        double hits = gets("hit");
+        double misses = gets("miss");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+
+        String url = "/api/tasks/by-author/cursor?authorId=" + adminId;
+
+        restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(gets("miss")).isEqualTo(misses + 1);
+        assertThat(gets("hit")).isEqualTo(hits + 1);
+    }
+
+    private double gets(String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets").tag("cache", "principal").tag("result", result)
+                .functionCounter();
+        assertThat(counter).as("метрика cache.gets{result=%s}", result).isNotNull();
+        return counter.count();
+    }
+}
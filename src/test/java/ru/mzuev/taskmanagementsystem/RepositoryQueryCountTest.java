@@ -0,0 +1,144 @@
+package ru.mzuev.taskmanagementsystem;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mzuev.taskmanagementsystem.dto.CommentDTO;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.mapper.CommentMapper;
+import ru.mzuev.taskmanagementsystem.mapper.TaskMapper;
+import ru.mzuev.taskmanagementsystem.model.Comment;
+import ru.mzuev.taskmanagementsystem.model.Task;
+import ru.mzuev.taskmanagementsystem.model.User;
+import ru.mzuev.taskmanagementsystem.repository.CommentRepository;
+import ru.mzuev.taskmanagementsystem.repository.TaskRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class RepositoryQueryCountTest {
+
+    private static final int TASKS = 5;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private TaskMapper taskMapper;
+    @Autowired
+    private CommentMapper commentMapper;
+
+    private Statistics statistics;
+    private Long authorId;
+    private Long executorId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        User author = new User("author@test.com", "hash", "ROLE_ADMIN");
+        User executor = new User("executor@test.com", "hash", "ROLE_USER");
+        entityManager.persist(author);
+        entityManager.persist(executor);
+        for (int i = 0; i < TASKS; i++) {
+            Task task = new Task("Task " + i, "Description " + i, "в очереди", "средний", author, executor);
+            entityManager.persist(task);
+            entityManager.persist(new Comment("Comment " + i, LocalDateTime.now(), task, executor));
+            taskId = task.getId();
+        }
+        authorId = author.getId();
+        executorId = executor.getId();
+
+        // Очищаем контекст, чтобы связанные сущности не брались из кеша первого уровня
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void findByAuthorId_ShouldNotLoadUsers() {
+        List<TaskDTO> tasks = taskRepository.findByAuthorId(authorId, PageRequest.of(0, 10))
+                .map(taskMapper::toDTO)
+                .getContent();
+
+        assertThat(tasks).hasSize(TASKS);
+        assertThat(tasks).allMatch(task -> authorId.equals(task.getAuthorId()) && executorId.equals(task.getExecutorId()));
+        assertSingleStatementWithoutUsers();
+    }
+
+    @Test
+    void findByExecutorId_ShouldNotLoadUsers() {
+        List<TaskDTO> tasks = taskRepository.findByExecutorId(executorId, PageRequest.of(0, 10))
+                .map(taskMapper::toDTO)
+                .getContent();
+
+        assertThat(tasks).hasSize(TASKS);
+        assertSingleStatementWithoutUsers();
+    }
+
+    @Test
+    void findByTaskId_ShouldNotLoadTaskOrUser() {
+        List<CommentDTO> comments = commentRepository.findByTaskId(taskId, PageRequest.of(0, 10))
+                .map(commentMapper::toDTO)
+                .getContent();
+
+        assertThat(comments).hasSize(1);
+        assertThat(comments.get(0).getUserId()).isEqualTo(executorId);
+        assertSingleStatementWithoutUsers();
+        assertThat(statistics.getEntityStatistics(Task.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    void findDTOByAuthorId_ShouldNotLoadEntities() {
+        List<TaskDTO> tasks = taskRepository.findDTOByAuthorId(authorId, PageRequest.of(0, 10)).getContent();
+
+        assertThat(tasks).hasSize(TASKS);
+        assertThat(tasks).allMatch(task -> executorId.equals(task.getExecutorId()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findDTOByAuthorId_TaskWithoutExecutor_ShouldBeReturned() {
+        User author = new User("unassigned@test.com", "hash", "ROLE_ADMIN");
+        entityManager.persist(author);
+        entityManager.persist(new Task("Unassigned", null, "в очереди", "низкий", author, null));
+
+        List<TaskDTO> tasks = taskRepository.findDTOByAuthorId(author.getId(), PageRequest.of(0, 10)).getContent();
+
+        assertThat(tasks).hasSize(1);
+        assertThat(tasks.get(0).getExecutorId()).isNull();
+    }
+
+    @Test
+    void findDTOByTaskId_ShouldNotLoadEntities() {
+        List<CommentDTO> comments = commentRepository.findDTOByTaskId(taskId, PageRequest.of(0, 10)).getContent();
+
+        assertThat(comments).hasSize(1);
+        assertThat(comments.get(0).getTaskId()).isEqualTo(taskId);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private void assertSingleStatementWithoutUsers() {
+        // Первая неполная страница не требует отдельного COUNT-запроса
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,117 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "sql.trace.sample-rate=0",
+        "sql.trace.slow-threshold=0ms"})
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@ExtendWith(OutputCaptureExtension.class)
+public class RequestLogTest {
+
+    // События пишутся в консоль асинхронным аппендером, поэтому появляются в выводе не сразу
+    private static final long AWAIT_MILLIS = 5000;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+
+    private String adminToken;
+    private Long adminId;
+
+    @BeforeEach
+    void setUp() {
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        adminId = userService.findDTOByEmail("admin@test.com").getId();
+    }
+
+    @Test
+    void request_ShouldBeLoggedAsJsonWithStatusUserAndStatements(CapturedOutput output) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle("Logged Task");
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+        Long taskId = restTemplate.postForEntity("/api/tasks", new HttpEntity<>(taskDTO, headers(adminToken)), TaskDTO.class)
+                .getBody().getId();
+
+        ResponseEntity<String> response = restTemplate.exchange("/api/tasks/" + taskId, HttpMethod.GET,
+                new HttpEntity<>(headers(adminToken)), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        String line = awaitLine(output, "\"path\":\"/api/tasks/" + taskId + "\"");
+        assertThat(line).startsWith("{")
+                .contains("\"method\":\"GET\"")
+                .contains("\"status\":200")
+                .contains("\"user_id\":" + adminId)
+                .contains("\"endpoint\":\"GET /api/tasks/{id}\"")
+                .contains("\"statements\":")
+                .contains("\"duration_ms\":");
+    }
+
+    @Test
+    void rejectedRequest_ShouldBeLoggedWithoutUser(CapturedOutput output) {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/tasks/1", String.class);
+        assertThat(response.getStatusCode().is4xxClientError()).isTrue();
+
+        String line = awaitLine(output, "\"path\":\"/api/tasks/1\"");
+        assertThat(line).contains("\"status\":" + response.getStatusCode().value())
+                .contains("\"user_id\":null");
+    }
+
+    @Test
+    void slowStatements_ShouldBeTracedWithEndpoint(CapturedOutput output) {
+        restTemplate.exchange("/api/tasks/by-author/cursor?authorId=" + adminId, HttpMethod.GET,
+                new HttpEntity<>(headers(adminToken)), String.class);
+
+        String line = awaitLine(output, "\"endpoint\":\"GET /api/tasks/by-author/cursor\"", "\"sql\":");
+        assertThat(line).contains("\"level\":\"WARN\"")
+                .contains("\"sql\":\"select ")
+                .contains("\"duration_ms\":");
+    }
+
+    private String awaitLine(CapturedOutput output, String... fragments) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(AWAIT_MILLIS);
+        while (System.nanoTime() < deadline) {
+            // JSON экранирует "/" как "\/"
+            for (String line : output.getOut().replace("\\/", "/").split("\\R")) {
+                if (Arrays.stream(fragments).allMatch(line::contains)) {
+                    return line;
+                }
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        throw new AssertionError("в логе нет строки с " + String.join(", ", fragments));
+    }
+
+    private HttpHeaders headers(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", token);
+        return headers;
+    }
+}
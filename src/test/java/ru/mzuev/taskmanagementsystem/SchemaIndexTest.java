@@ -0,0 +1,117 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import ru.mzuev.taskmanagementsystem.StatementCapture.CapturedStatement;
+import ru.mzuev.taskmanagementsystem.repository.CommentRepository;
+import ru.mzuev.taskmanagementsystem.repository.TaskRepository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет по плану выполнения (EXPLAIN), что основные запросы репозиториев используют индексы из миграций.
+ * План строится для SQL, который Hibernate действительно сформировал при вызове метода репозитория:
+ * запрос и значения его параметров перехватываются через datasource-proxy (см. StatementCapture).
+ * Тестовая H2 работает в режиме совместимости с PostgreSQL и получает ту же схему через Flyway.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(StatementCapture.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SchemaIndexTest {
+
+    // H2, в отличие от PostgreSQL, создает для внешнего ключа comments.task_id собственный индекс и учитывает
+    // порядок сортировки индекса, только если он начинается с первого столбца индекса. Поэтому для комментариев
+    // здесь проверяется поиск по индексу на task_id, а выбор idx_comments_task_id — в PostgresSearchTest.
+    private static final String TASK_ID_LOOKUP = "/\\* PUBLIC\\.\\w+: TASK_ID = \\?1 \\*/";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Long userId;
+    private Long taskId;
+
+    @BeforeAll
+    void seed() {
+        // Наполняем таблицы и собираем статистику, иначе на пустых таблицах оптимизатор выбирает индекс произвольно
+        jdbcTemplate.update("insert into users (email, password, role) values ('schema@test.com', 'hash', 'ROLE_USER')");
+        userId = jdbcTemplate.queryForObject("select id from users where email = 'schema@test.com'", Long.class);
+        jdbcTemplate.update("insert into tasks (title, status, priority, author_id, executor_id) "
+                + "select 'Schema task ' || x, 'в очереди', 'низкий', ?, ? from system_range(1, 2000)", userId, userId);
+        jdbcTemplate.update("insert into comments (content, created_at, task_id, user_id) "
+                + "select 'Comment', current_timestamp, id, author_id from tasks where author_id = ?", userId);
+        jdbcTemplate.execute("analyze");
+        taskId = jdbcTemplate.queryForObject("select min(id) from tasks", Long.class);
+    }
+
+    @Test
+    void findDTOByAuthorIdAfter_ShouldUseAuthorIndex() {
+        CapturedStatement statement = StatementCapture.single(() -> taskRepository.findDTOByAuthorIdAfter(userId, 0L, Limit.of(20)));
+        assertThat(explain(statement)).containsIgnoringCase("idx_tasks_author_id");
+    }
+
+    @Test
+    void findDTOByExecutorIdAfter_ShouldUseExecutorIndex() {
+        CapturedStatement statement = StatementCapture.single(() -> taskRepository.findDTOByExecutorIdAfter(userId, 0L, Limit.of(20)));
+        assertThat(explain(statement)).containsIgnoringCase("idx_tasks_executor_id");
+    }
+
+    @Test
+    void findByTitleIn_ShouldUseUniqueTitleIndex() {
+        CapturedStatement statement = StatementCapture.single(() -> taskRepository.findByTitleIn(List.of("Schema task 1")));
+        assertThat(explain(statement)).containsIgnoringCase("uk_tasks_title");
+    }
+
+    @Test
+    void findDTOByTaskIdFirst_ShouldUseTaskIndex() {
+        CapturedStatement statement = StatementCapture.single(() -> commentRepository.findDTOByTaskIdFirst(taskId, Limit.of(20)));
+        assertThat(explain(statement)).containsPattern(TASK_ID_LOOKUP);
+    }
+
+    @Test
+    void findDTOByTaskIdAfter_ShouldUseTaskIndex() {
+        CapturedStatement statement = StatementCapture.single(() -> commentRepository.findDTOByTaskIdAfter(
+                taskId, LocalDateTime.of(2000, 1, 1, 0, 0), 0L, Limit.of(20)));
+        assertThat(explain(statement)).containsPattern(TASK_ID_LOOKUP);
+    }
+
+    @Test
+    void migration_ShouldRenameDuplicateTitlesBeforeUniqueConstraint() {
+        // База, созданная до V2 (как при подключении через baseline-on-migrate), с повторяющимися названиями
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        legacy.update("insert into users (email, password, role) values ('legacy@test.com', 'hash', 'ROLE_USER')");
+        legacy.update("insert into tasks (title, status, priority, author_id) "
+                + "select 'Duplicate', 'в очереди', 'низкий', id from users cross join system_range(1, 3)");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        List<Long> ids = legacy.queryForList("select id from tasks order by id", Long.class);
+        assertThat(legacy.queryForList("select title from tasks order by id", String.class))
+                .containsExactly("Duplicate", "Duplicate #" + ids.get(1), "Duplicate #" + ids.get(2));
+    }
+
+    private String explain(CapturedStatement statement) {
+        return StatementCapture.explain(jdbcTemplate, statement);
+    }
+}
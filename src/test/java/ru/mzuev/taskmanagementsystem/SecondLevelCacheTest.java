@@ -0,0 +1,163 @@
+package ru.mzuev.taskmanagementsystem;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.mzuev.taskmanagementsystem.cache.EntityCacheInvalidator;
+import ru.mzuev.taskmanagementsystem.config.HibernateCacheConfig;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.model.Task;
+import ru.mzuev.taskmanagementsystem.model.User;
+import ru.mzuev.taskmanagementsystem.security.CustomUserDetailsService;
+import ru.mzuev.taskmanagementsystem.security.TokenVersionRegistry;
+import ru.mzuev.taskmanagementsystem.service.TaskService;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @LocalManagementPort
+    private int managementPort;
+
+    private Statistics statistics;
+    private String adminToken;
+    private Long adminId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        adminId = userService.findDTOByEmail("admin@test.com").getId();
+
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle("Cached Task");
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+        taskId = taskService.createTask(taskDTO).getId();
+    }
+
+    @Test
+    void getTaskById_SecondCall_ShouldBeServedFromCache() {
+        taskService.getTaskById(taskId);
+        statistics.clear();
+
+        TaskDTO task = taskService.getTaskById(taskId);
+
+        assertThat(task.getTitle()).isEqualTo("Cached Task");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getCacheRegionStatistics(HibernateCacheConfig.TASK_REGION).getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateTaskStatus_ShouldNotReturnStaleTask() {
+        taskService.getTaskById(taskId);
+
+        taskService.updateTaskStatus(taskId, "в работе");
+
+        assertThat(taskService.getTaskById(taskId).getStatus()).isEqualTo("в работе");
+    }
+
+    @Test
+    void existsById_SecondCall_ShouldHitQueryCache() {
+        userService.existsById(adminId);
+        statistics.clear();
+
+        assertThat(userService.existsById(adminId)).isTrue();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void handle_RemoteTaskChange_ShouldEvictTask() {
+        taskService.getTaskById(taskId);
+        assertThat(entityManagerFactory.getCache().contains(Task.class, taskId)).isTrue();
+
+        entityCacheInvalidator.handle("Task:" + taskId);
+
+        assertThat(entityManagerFactory.getCache().contains(Task.class, taskId)).isFalse();
+    }
+
+    @Test
+    void handle_RemoteUserChange_ShouldReloadPrincipal() {
+        assertThat(userDetailsService.loadCachedUserByUsername("admin@test.com").getAuthorities())
+                .extracting(Object::toString).containsExactly("ROLE_ADMIN");
+        userService.findEntityById(adminId);
+        // Роль изменена другим экземпляром приложения: локальные кеши о ней не знают
+        jdbcTemplate.update("update users set role = 'ROLE_USER' where id = ?", adminId);
+        assertThat(userDetailsService.loadCachedUserByUsername("admin@test.com").getAuthorities())
+                .extracting(Object::toString).containsExactly("ROLE_ADMIN");
+
+        entityCacheInvalidator.handle("User:" + adminId);
+
+        assertThat(entityManagerFactory.getCache().contains(User.class, adminId)).isFalse();
+        assertThat(userDetailsService.loadCachedUserByUsername("admin@test.com").getAuthorities())
+                .extracting(Object::toString).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void handle_RemoteRoleChange_ShouldRevokeTokensOnce() {
+        entityCacheInvalidator.handle("User:" + adminId + ":1");
+
+        assertThat(tokenVersionRegistry.isCurrent(adminId, 0)).isFalse();
+        assertThat(tokenVersionRegistry.isCurrent(adminId, 1)).isTrue();
+
+        // Повторное уведомление (в том числе собственное) не отзывает токены, выданные после смены роли
+        entityCacheInvalidator.handle("User:" + adminId + ":1");
+        assertThat(tokenVersionRegistry.isCurrent(adminId, 1)).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cacheEndpoint_Admin_ShouldReturnRegionStatistics() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange("http://localhost:" + managementPort + "/actuator/hibernatecache",
+                HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<>() {});
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((Map<String, Object>) response.getBody().get("regions"))
+                .containsKeys(HibernateCacheConfig.TASK_REGION, HibernateCacheConfig.USER_REGION);
+    }
+}
@@ -0,0 +1,101 @@
+package ru.mzuev.taskmanagementsystem;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.security.JwtUtil;
+import ru.mzuev.taskmanagementsystem.security.PrincipalCache;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "jwt.stateless.enabled=true")
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class StatelessAuthenticationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PrincipalCache principalCache;
+
+    private String adminToken;
+    private Long adminId;
+
+    @BeforeEach
+    void setUp() {
+        // Первый зарегистрированный пользователь получает роль администратора
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        adminId = userService.findDTOByEmail("admin@test.com").getId();
+    }
+
+    @Test
+    void createTask_StatelessToken_ShouldAuthorizeFromClaims() {
+        ResponseEntity<TaskDTO> response = createTask("Stateless Task");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void createTask_AfterRoleChange_ShouldRejectOldToken() {
+        userService.changeRole(adminId, "ROLE_USER");
+
+        ResponseEntity<TaskDTO> response = createTask("Revoked Task");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(jdbcTemplate.queryForObject("select token_version from users where id = ?", Long.class, adminId))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    void login_AfterRevocationOnAnotherInstance_ShouldIssueCurrentTokenVersion() {
+        // Токены отозваны другим экземпляром, а этот уведомления не получал и начинает с пустыми кешами
+        // (как после перезапуска)
+        jdbcTemplate.update("update users set token_version = 3 where id = ?", adminId);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        principalCache.evictAll();
+
+        AuthResponse auth = restTemplate.postForObject("/api/auth/login",
+                new AuthRequest("admin@test.com", "adminPass"), AuthResponse.class);
+        assertThat(jwtUtil.parseClaims(auth.getToken()).orElseThrow().get(JwtUtil.VERSION_CLAIM, Long.class))
+                .isEqualTo(3L);
+
+        String revokedToken = adminToken;
+        adminToken = "Bearer " + auth.getToken();
+        assertThat(createTask("Fresh Token Task").getStatusCode()).isEqualTo(HttpStatus.OK);
+        adminToken = revokedToken;
+        assertThat(createTask("Revoked Token Task").getStatusCode()).isNotEqualTo(HttpStatus.OK);
+    }
+
+    private ResponseEntity<TaskDTO> createTask(String title) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle(title);
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        return restTemplate.exchange("/api/tasks", HttpMethod.POST, new HttpEntity<>(taskDTO, headers), TaskDTO.class);
+    }
+}
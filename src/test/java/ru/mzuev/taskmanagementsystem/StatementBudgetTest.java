@@ -0,0 +1,161 @@
+package ru.mzuev.taskmanagementsystem;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.CommentRequest;
+import ru.mzuev.taskmanagementsystem.dto.StatusUpdateRequest;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.sql.RequestStatements;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "sql.budget.mode=fail",
+        "sql.budget.endpoints=GET /api/tasks/by-author/cursor=0",
+        "sql.budget.repeat-threshold=3"})
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Import(StatementCountRecorder.class)
+public class StatementBudgetTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private StatementCountRecorder statementCountRecorder;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String adminToken;
+    private String executorToken;
+    private Long adminId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        adminId = userService.findDTOByEmail("admin@test.com").getId();
+
+        AuthRequest executorRegisterRequest = new AuthRequest("executor@test.com", "execPass");
+        restTemplate.postForEntity("/api/auth/register", executorRegisterRequest, String.class);
+        AuthResponse executorAuth = restTemplate.postForObject("/api/auth/login", executorRegisterRequest, AuthResponse.class);
+        executorToken = "Bearer " + executorAuth.getToken();
+        Long executorId = userService.findDTOByEmail("executor@test.com").getId();
+
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle("Budget Task");
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+        taskDTO.setExecutorId(executorId);
+        taskId = restTemplate.postForEntity("/api/tasks", new HttpEntity<>(taskDTO, headers(adminToken)), TaskDTO.class)
+                .getBody().getId();
+    }
+
+    @Test
+    void hotEndpoints_ShouldStayWithinStatementCounts() {
+        // Первое создание задачи дополнительно выбирает блок идентификаторов и загружает пользователей в кеш
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle("Second Budget Task");
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+        restTemplate.postForEntity("/api/tasks", new HttpEntity<>(taskDTO, headers(adminToken)), TaskDTO.class);
+        restTemplate.exchange("/api/tasks/" + taskId, HttpMethod.GET, new HttpEntity<>(headers(executorToken)), TaskDTO.class);
+        restTemplate.exchange("/api/tasks/" + taskId + "/status", HttpMethod.PUT,
+                new HttpEntity<>(new StatusUpdateRequest("в работе"), headers(executorToken)), TaskDTO.class);
+        restTemplate.postForEntity("/api/comments",
+                new HttpEntity<>(new CommentRequest("Комментарий", taskId), headers(executorToken)), String.class);
+        restTemplate.exchange("/api/comments/by-task/" + taskId + "/cursor", HttpMethod.GET,
+                new HttpEntity<>(headers(executorToken)), String.class);
+
+        statementCountRecorder.assertAtMost("POST /api/tasks", 2);
+        statementCountRecorder.assertAtMost("GET /api/tasks/{id}", 1);
+        statementCountRecorder.assertAtMost("PUT /api/tasks/{id}/status", 3);
+        statementCountRecorder.assertAtMost("POST /api/comments", 2);
+        statementCountRecorder.assertAtMost("GET /api/comments/by-task/{taskId}/cursor", 1);
+        assertThat(statementCountRecorder.last("GET /api/tasks/{id}").getJdbcMillis()).isPositive();
+    }
+
+    @Test
+    void endpointOverBudget_FailMode_ShouldAbortRequest() {
+        ResponseEntity<String> response = restTemplate.exchange("/api/tasks/by-author/cursor?authorId=" + adminId,
+                HttpMethod.GET, new HttpEntity<>(headers(adminToken)), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+
+        RequestStatements statements = statementCountRecorder.last("GET /api/tasks/by-author/cursor");
+        assertThat(statements.isOverBudget()).isTrue();
+        assertThat(violations("/api/tasks/by-author/cursor", "budget")).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedStatements_ShouldBeReportedAsNPlusOne() {
+        ResponseEntity<String> response = restTemplate.exchange("/test/repeated-statements", HttpMethod.GET,
+                new HttpEntity<>(headers(adminToken)), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        RequestStatements statements = statementCountRecorder.last("GET /test/repeated-statements");
+        // Запросы с разными значениями параметров и разной длиной списка IN считаются одной формой
+        assertThat(statements.getRepeatedShapes(3))
+                .containsEntry("select count(*) from tasks where id in (?) and title <> ?", 3);
+        assertThat(violations("/test/repeated-statements", "repeated")).isEqualTo(1);
+    }
+
+    private double violations(String uri, String type) {
+        Counter counter = meterRegistry.find("sql.budget.violations").tag("uri", uri).tag("type", type).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private HttpHeaders headers(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", token);
+        return headers;
+    }
+
+    @TestConfiguration
+    static class RepeatedStatementsConfig {
+        @Bean
+        RepeatedStatementsController repeatedStatementsController(JdbcTemplate jdbcTemplate) {
+            return new RepeatedStatementsController(jdbcTemplate);
+        }
+    }
+
+    @RestController
+    static class RepeatedStatementsController {
+        private final JdbcTemplate jdbcTemplate;
+
+        RepeatedStatementsController(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @GetMapping("/test/repeated-statements")
+        int repeatedStatements() {
+            int total = 0;
+            total += jdbcTemplate.queryForObject("select count(*) from tasks where id in (1) and title <> 'a'", Integer.class);
+            total += jdbcTemplate.queryForObject("select count(*) from tasks where id in (?, ?) and title <> ?", Integer.class, 1, 2, "b");
+            total += jdbcTemplate.queryForObject("select  count(*) from tasks where id in (?, ?, ?) and title <> ?", Integer.class, 1, 2, 3, "c");
+            return total;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ru.mzuev.taskmanagementsystem;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Перехват SQL, который Hibernate формирует при вызове методов репозиториев, для проверки планов выполнения.
+ * Подключается к тесту через @Import(StatementCapture.Config.class): источник данных оборачивается в еще один
+ * datasource-proxy, который запоминает текст запросов и значения их параметров.
+ */
+public final class StatementCapture implements QueryExecutionListener {
+
+    private static final StatementCapture INSTANCE = new StatementCapture();
+
+    private final ThreadLocal<List<CapturedStatement>> statements = new ThreadLocal<>();
+
+    private StatementCapture() {
+    }
+
+    /**
+     * Выполняет действие и возвращает единственный выполненный им в текущем потоке запрос.
+     *
+     * @param action Вызов метода репозитория.
+     * @return Запрос с параметрами.
+     */
+    public static CapturedStatement single(Runnable action) {
+        List<CapturedStatement> captured = new ArrayList<>();
+        INSTANCE.statements.set(captured);
+        try {
+            action.run();
+        } finally {
+            INSTANCE.statements.remove();
+        }
+        assertThat(captured).as("SQL-запросы метода репозитория").hasSize(1);
+        return captured.get(0);
+    }
+
+    /**
+     * Возвращает план выполнения запроса с теми же значениями параметров.
+     *
+     * @param jdbcTemplate JdbcTemplate тестовой БД.
+     * @param statement Перехваченный запрос.
+     * @return План (строки плана PostgreSQL объединяются через перевод строки).
+     */
+    public static String explain(JdbcTemplate jdbcTemplate, CapturedStatement statement) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + statement.sql(), String.class,
+                statement.parameters().toArray()));
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<CapturedStatement> captured = statements.get();
+        if (captured == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<Object> parameters = new ArrayList<>();
+            if (!queryInfo.getParametersList().isEmpty()) {
+                queryInfo.getParametersList().get(0).stream()
+                        .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                        .map(ParameterSetOperation::getArgs)
+                        .forEach(args -> parameters.add(args[1]));
+            }
+            captured.add(new CapturedStatement(queryInfo.getQuery(), parameters));
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    /**
+     * Перехваченный запрос.
+     *
+     * @param sql Текст запроса с параметрами "?".
+     * @param parameters Значения параметров в порядке их номеров.
+     */
+    public record CapturedStatement(String sql, List<Object> parameters) {
+    }
+
+    /**
+     * Подключает перехват запросов к источнику данных тестового контекста.
+     */
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        static BeanPostProcessor statementCaptureDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(INSTANCE).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
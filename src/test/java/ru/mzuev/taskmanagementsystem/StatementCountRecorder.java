@@ -0,0 +1,67 @@
+package ru.mzuev.taskmanagementsystem;
+
+import ru.mzuev.taskmanagementsystem.sql.RequestStatements;
+import ru.mzuev.taskmanagementsystem.sql.RequestStatementsObserver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тестовый получатель статистики SQL-запросов: запоминает последний HTTP-запрос каждого эндпоинта.
+ * Подключается к тесту через @Import(StatementCountRecorder.class), эндпоинты задаются как "МЕТОД шаблон",
+ * например "GET /api/tasks/{id}".
+ */
+public class StatementCountRecorder implements RequestStatementsObserver {
+
+    // Статистика передается после отправки ответа, поэтому тест может получить ответ раньше нее
+    private static final long AWAIT_MILLIS = 5000;
+
+    private final Map<String, RequestStatements> lastByEndpoint = new ConcurrentHashMap<>();
+
+    @Override
+    public void requestCompleted(RequestStatements statements) {
+        if (statements.getEndpoint() != null) {
+            lastByEndpoint.put(statements.getEndpoint(), statements);
+        }
+    }
+
+    /**
+     * Забывает выполненные запросы.
+     */
+    public void clear() {
+        lastByEndpoint.clear();
+    }
+
+    /**
+     * Возвращает статистику последнего запроса к эндпоинту, ожидая ее появления.
+     *
+     * @param endpoint Эндпоинт.
+     * @return Статистика.
+     */
+    public RequestStatements last(String endpoint) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(AWAIT_MILLIS);
+        RequestStatements statements;
+        while ((statements = lastByEndpoint.get(endpoint)) == null && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertThat(statements).as("запрос к %s не выполнялся", endpoint).isNotNull();
+        return statements;
+    }
+
+    /**
+     * Проверяет, что последний запрос к эндпоинту выполнил не больше указанного количества SQL-запросов
+     * и не повторял запросы одной формы.
+     *
+     * @param endpoint Эндпоинт.
+     * @param maxStatements Допустимое количество SQL-запросов.
+     */
+    public void assertAtMost(String endpoint, int maxStatements) {
+        RequestStatements statements = last(endpoint);
+        assertThat(statements.getCount()).as("SQL-запросы %s", endpoint).isLessThanOrEqualTo(maxStatements);
+        assertThat(statements.getRepeatedShapes(2)).as("повторяющиеся SQL-запросы %s", endpoint).isEmpty();
+    }
+}
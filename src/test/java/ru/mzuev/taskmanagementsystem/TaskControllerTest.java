@@ -5,15 +5,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
 import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.BulkStatusUpdateRequest;
+import ru.mzuev.taskmanagementsystem.dto.BulkStatusUpdateResult;
+import ru.mzuev.taskmanagementsystem.dto.CursorPage;
 import ru.mzuev.taskmanagementsystem.dto.StatusUpdateRequest;
 import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
 import ru.mzuev.taskmanagementsystem.service.UserService;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -25,6 +40,10 @@ public class TaskControllerTest {
     private TestRestTemplate restTemplate;
     @Autowired
     private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     private String adminToken;
     private String executorToken;
@@ -139,4 +158,303 @@ public class TaskControllerTest {
         );
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateStatuses_Executor_ShouldUpdateOwnTasksAndReportOthers() {
+        HttpHeaders adminHeaders = new HttpHeaders();
+        adminHeaders.set("Authorization", adminToken);
+        TaskDTO foreignTask = new TaskDTO();
+        foreignTask.setTitle("Foreign Task");
+        foreignTask.setStatus("в очереди");
+        foreignTask.setPriority("низкий");
+        foreignTask.setAuthorId(adminId);
+        Long foreignTaskId = restTemplate.postForEntity("/api/tasks", new HttpEntity<>(foreignTask, adminHeaders), TaskDTO.class)
+                .getBody().getId();
+
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setTaskIds(List.of(createdTaskId, foreignTaskId, 999_999L));
+        request.setStatus("завершена");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", executorToken);
+        ResponseEntity<BulkStatusUpdateResult> response = restTemplate.exchange("/api/tasks/bulk/status",
+                HttpMethod.PUT, new HttpEntity<>(request, headers), BulkStatusUpdateResult.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getUpdated()).isEqualTo(1);
+        assertThat(response.getBody().getResults()).containsExactlyInAnyOrder(
+                new BulkStatusUpdateResult.TaskResult(createdTaskId, BulkStatusUpdateResult.Outcome.UPDATED),
+                new BulkStatusUpdateResult.TaskResult(foreignTaskId, BulkStatusUpdateResult.Outcome.FORBIDDEN),
+                new BulkStatusUpdateResult.TaskResult(999_999L, BulkStatusUpdateResult.Outcome.NOT_FOUND));
+
+        ResponseEntity<TaskDTO> updatedTask = restTemplate.exchange("/api/tasks/" + createdTaskId,
+                HttpMethod.GET, new HttpEntity<>(adminHeaders), TaskDTO.class);
+        assertThat(updatedTask.getBody().getStatus()).isEqualTo("завершена");
+    }
+
+    @Test
+    void updateStatuses_TaskReassignedConcurrently_ShouldCheckExecutorAfterLock() throws Exception {
+        Long anotherUserId = userService.findDTOByEmail("anotheruser@test.com").getId();
+        CountDownLatch reassignLocked = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Параллельная транзакция переназначает задачу и держит блокировку строки, пока идет массовое обновление
+            Future<?> reassign = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("update tasks set executor_id = ? where id = ?", anotherUserId, createdTaskId);
+                reassignLocked.countDown();
+                sleep(Duration.ofMillis(500));
+            }));
+            assertThat(reassignLocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+            request.setTaskIds(List.of(createdTaskId));
+            request.setStatus("завершена");
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("Authorization", executorToken);
+            ResponseEntity<BulkStatusUpdateResult> response = restTemplate.exchange("/api/tasks/bulk/status",
+                    HttpMethod.PUT, new HttpEntity<>(request, headers), BulkStatusUpdateResult.class);
+            reassign.get();
+
+            // Проверка прав ждет коммита переназначения и видит нового исполнителя
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody().getUpdated()).isZero();
+            assertThat(response.getBody().getResults()).containsExactly(
+                    new BulkStatusUpdateResult.TaskResult(createdTaskId, BulkStatusUpdateResult.Outcome.FORBIDDEN));
+            assertThat(jdbcTemplate.queryForObject("select status from tasks where id = ?", String.class, createdTaskId))
+                    .isEqualTo("в очереди");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void updateStatuses_AdminFilter_ShouldUpdateMatchingTasks() {
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setExecutorId(executorId);
+        request.setCurrentStatus("в очереди");
+        request.setStatus("в работе");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        ResponseEntity<BulkStatusUpdateResult> response = restTemplate.exchange("/api/tasks/bulk/status",
+                HttpMethod.PUT, new HttpEntity<>(request, headers), BulkStatusUpdateResult.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getUpdated()).isEqualTo(1);
+        assertThat(response.getBody().getResults()).isEmpty();
+    }
+
+    @Test
+    void updateStatuses_FilterOverLimit_ShouldReturnBadRequest() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < BulkStatusUpdateRequest.MAX_TASKS; i++) {
+            rows.add(new Object[]{"Bulk Task " + i, "в очереди", "низкий", adminId, executorId});
+        }
+        jdbcTemplate.batchUpdate("insert into tasks (title, status, priority, author_id, executor_id) values (?, ?, ?, ?, ?)", rows);
+
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setExecutorId(executorId);
+        request.setStatus("в работе");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        ResponseEntity<String> response = restTemplate.exchange("/api/tasks/bulk/status",
+                HttpMethod.PUT, new HttpEntity<>(request, headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from tasks where status = 'в работе'", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void updateStatuses_NoTarget_ShouldReturnBadRequest() {
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setStatus("в работе");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        ResponseEntity<String> response = restTemplate.exchange("/api/tasks/bulk/status",
+                HttpMethod.PUT, new HttpEntity<>(request, headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void getTasksByExecutorCursor_ShouldPageThroughAllTasks() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        for (int i = 0; i < 4; i++) {
+            TaskDTO newTask = new TaskDTO();
+            newTask.setTitle("Cursor Task " + i);
+            newTask.setStatus("в очереди");
+            newTask.setPriority("низкий");
+            newTask.setAuthorId(adminId);
+            newTask.setExecutorId(executorId);
+            restTemplate.postForEntity("/api/tasks", new HttpEntity<>(newTask, headers), TaskDTO.class);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int requests = 0;
+        do {
+            String url = "/api/tasks/by-executor/cursor?executorId=" + executorId + "&size=2"
+                    + (cursor != null ? "&cursor=" + cursor : "");
+            ResponseEntity<CursorPage<TaskDTO>> response = restTemplate.exchange(url, HttpMethod.GET,
+                    new HttpEntity<>(headers), new ParameterizedTypeReference<>() {});
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            response.getBody().getContent().forEach(task -> ids.add(task.getId()));
+            cursor = response.getBody().getNextCursor();
+            requests++;
+        } while (cursor != null);
+
+        assertThat(requests).isEqualTo(3);
+        assertThat(ids).hasSize(5).doesNotHaveDuplicates().isSorted();
+    }
+
+    @Test
+    void getTasksByExecutorCursor_InvalidCursor_ShouldReturnBadRequest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/tasks/by-executor/cursor?executorId=" + executorId + "&cursor=not-a-cursor",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    public void testStreamTasksByExecutor_ShouldReturnTasksAsNdjson() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/tasks/by-executor/stream?executorId=" + executorId,
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(response.getBody().lines().toList())
+                .singleElement()
+                .asString()
+                .contains("\"id\":" + createdTaskId);
+    }
+
+    @Test
+    void getTaskById_MatchingIfNoneMatch_ShouldReturnNotModified() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        ResponseEntity<TaskDTO> first = restTemplate.exchange("/api/tasks/" + createdTaskId,
+                HttpMethod.GET, new HttpEntity<>(headers), TaskDTO.class);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isNotNull();
+
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> second = restTemplate.exchange("/api/tasks/" + createdTaskId,
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(second.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(second.getBody()).isNull();
+
+        // После изменения задачи старый ETag больше не совпадает
+        HttpHeaders executorHeaders = new HttpHeaders();
+        executorHeaders.set("Authorization", executorToken);
+        restTemplate.exchange("/api/tasks/" + createdTaskId + "/status", HttpMethod.PUT,
+                new HttpEntity<>(new StatusUpdateRequest("в работе"), executorHeaders), TaskDTO.class);
+
+        ResponseEntity<TaskDTO> third = restTemplate.exchange("/api/tasks/" + createdTaskId,
+                HttpMethod.GET, new HttpEntity<>(headers), TaskDTO.class);
+        assertThat(third.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(third.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(third.getBody().getStatus()).isEqualTo("в работе");
+    }
+
+    @Test
+    void updateTask_StaleIfMatch_ShouldReturnPreconditionFailed() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        ResponseEntity<TaskDTO> current = restTemplate.exchange("/api/tasks/" + createdTaskId,
+                HttpMethod.GET, new HttpEntity<>(headers), TaskDTO.class);
+        String etag = current.getHeaders().getETag();
+
+        TaskDTO update = current.getBody();
+        update.setDescription("Updated Description");
+        headers.setIfMatch(etag);
+        ResponseEntity<TaskDTO> updated = restTemplate.exchange("/api/tasks/" + createdTaskId,
+                HttpMethod.PUT, new HttpEntity<>(update, headers), TaskDTO.class);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getHeaders().getETag()).isNotNull().isNotEqualTo(etag);
+
+        // Повторное изменение с устаревшим ETag отклоняется
+        update.setDescription("Lost Update");
+        ResponseEntity<String> stale = restTemplate.exchange("/api/tasks/" + createdTaskId + "/status",
+                HttpMethod.PUT, new HttpEntity<>(new StatusUpdateRequest("завершена"), headers), String.class);
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        ResponseEntity<String> staleUpdate = restTemplate.exchange("/api/tasks/" + createdTaskId,
+                HttpMethod.PUT, new HttpEntity<>(update, headers), String.class);
+        assertThat(staleUpdate.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        headers.remove(HttpHeaders.IF_MATCH);
+        TaskDTO actual = restTemplate.exchange("/api/tasks/" + createdTaskId,
+                HttpMethod.GET, new HttpEntity<>(headers), TaskDTO.class).getBody();
+        assertThat(actual.getDescription()).isEqualTo("Updated Description");
+        assertThat(actual.getStatus()).isEqualTo("в очереди");
+    }
+
+    @Test
+    void updateStatus_TaskChangedAfterIfMatchCheck_ShouldReturnPreconditionFailed() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", executorToken);
+        String etag = restTemplate.exchange("/api/tasks/" + createdTaskId,
+                HttpMethod.GET, new HttpEntity<>(headers), TaskDTO.class).getHeaders().getETag();
+        CountDownLatch changeLocked = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Параллельная транзакция меняет задачу после того, как запрос уже прочитал ее версию,
+            // и держит блокировку строки, пока запрос не дойдет до сохранения
+            Future<?> change = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("update tasks set description = 'Concurrent', version = version + 1 where id = ?",
+                        createdTaskId);
+                changeLocked.countDown();
+                sleep(Duration.ofMillis(500));
+            }));
+            assertThat(changeLocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            headers.setIfMatch(etag);
+            ResponseEntity<String> response = restTemplate.exchange("/api/tasks/" + createdTaskId + "/status",
+                    HttpMethod.PUT, new HttpEntity<>(new StatusUpdateRequest("завершена"), headers), String.class);
+            change.get();
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+            assertThat(jdbcTemplate.queryForObject("select status from tasks where id = ?", String.class, createdTaskId))
+                    .isEqualTo("в очереди");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void updateStatuses_ShouldChangeTaskETag() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        String etag = restTemplate.exchange("/api/tasks/" + createdTaskId,
+                HttpMethod.GET, new HttpEntity<>(headers), TaskDTO.class).getHeaders().getETag();
+
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setTaskIds(List.of(createdTaskId));
+        request.setStatus("в работе");
+        restTemplate.exchange("/api/tasks/bulk/status", HttpMethod.PUT,
+                new HttpEntity<>(request, headers), BulkStatusUpdateResult.class);
+
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<TaskDTO> response = restTemplate.exchange("/api/tasks/" + createdTaskId,
+                HttpMethod.GET, new HttpEntity<>(headers), TaskDTO.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getStatus()).isEqualTo("в работе");
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
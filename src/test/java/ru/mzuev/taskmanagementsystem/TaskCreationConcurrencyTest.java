@@ -0,0 +1,137 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class TaskCreationConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+
+    private String adminToken;
+    private Long adminId;
+
+    @BeforeEach
+    void setUp() {
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        adminId = userService.findDTOByEmail("admin@test.com").getId();
+    }
+
+    @Test
+    void createTask_ParallelSameTitle_ShouldCreateExactlyOne() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatusCode>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return createTask("Parallel Task", null).getStatusCode();
+                }));
+            }
+            start.countDown();
+
+            List<HttpStatusCode> statuses = new ArrayList<>();
+            for (Future<HttpStatusCode> result : results) {
+                statuses.add(result.get());
+            }
+            assertThat(statuses).filteredOn(status -> status.equals(HttpStatus.OK)).hasSize(1);
+            assertThat(statuses).filteredOn(status -> status.equals(HttpStatus.CONFLICT)).hasSize(THREADS - 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void createTask_SameIdempotencyKey_ShouldReturnSameTask() {
+        ResponseEntity<TaskDTO> first = createTask("Idempotent Task", "key-1");
+        ResponseEntity<TaskDTO> retry = createTask("Idempotent Task", "key-1");
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retry.getBody().getId()).isEqualTo(first.getBody().getId());
+    }
+
+    @Test
+    void createTask_SameIdempotencyKeyDifferentPayload_ShouldReturnUnprocessableEntity() {
+        ResponseEntity<TaskDTO> first = createTask("Idempotent Task", "key-1");
+        ResponseEntity<String> retry = createTask("Other Task", "key-1", adminToken);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    void createTask_SameIdempotencyKeyOtherUser_ShouldReturnUnprocessableEntity() {
+        AuthRequest otherAdminRequest = new AuthRequest("other-admin@test.com", "otherPass");
+        restTemplate.postForEntity("/api/auth/register", otherAdminRequest, String.class);
+        userService.changeRole(userService.findDTOByEmail("other-admin@test.com").getId(), "ROLE_ADMIN");
+        AuthResponse otherAdminAuth = restTemplate.postForObject("/api/auth/login", otherAdminRequest, AuthResponse.class);
+
+        ResponseEntity<TaskDTO> first = createTask("Idempotent Task", "key-1");
+        ResponseEntity<String> retry = createTask("Idempotent Task", "key-1", "Bearer " + otherAdminAuth.getToken());
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    void createTask_DuplicateTitleWithoutKey_ShouldReturnConflict() {
+        createTask("Duplicate Task", null);
+
+        ResponseEntity<TaskDTO> duplicate = createTask("Duplicate Task", null);
+        assertThat(duplicate.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    private ResponseEntity<TaskDTO> createTask(String title, String idempotencyKey) {
+        return restTemplate.exchange("/api/tasks", HttpMethod.POST, taskRequest(title, idempotencyKey, adminToken), TaskDTO.class);
+    }
+
+    private ResponseEntity<String> createTask(String title, String idempotencyKey, String token) {
+        return restTemplate.exchange("/api/tasks", HttpMethod.POST, taskRequest(title, idempotencyKey, token), String.class);
+    }
+
+    private HttpEntity<TaskDTO> taskRequest(String title, String idempotencyKey, String token) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle(title);
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", token);
+        if (idempotencyKey != null) {
+            headers.set("Idempotency-Key", idempotencyKey);
+        }
+        return new HttpEntity<>(taskDTO, headers);
+    }
+}
@@ -0,0 +1,162 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.StatusUpdateRequest;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.event.TaskChangeEvent;
+import ru.mzuev.taskmanagementsystem.event.TaskEventBroadcaster;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Маленькая очередь на подключение, чтобы быстро переполнить ее медленным подписчиком
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "tasks.events.buffer-size=2")
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class TaskEventTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskEventBroadcaster taskEventBroadcaster;
+    @LocalServerPort
+    private int port;
+
+    private String adminToken;
+    private String executorToken;
+    private Long executorId;
+    private Long createdTaskId;
+
+    @BeforeEach
+    void setUp() {
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        Long adminId = userService.findDTOByEmail("admin@test.com").getId();
+
+        AuthRequest executorRegisterRequest = new AuthRequest("executor@test.com", "execPass");
+        restTemplate.postForEntity("/api/auth/register", executorRegisterRequest, String.class);
+        AuthResponse executorAuth = restTemplate.postForObject("/api/auth/login", executorRegisterRequest, AuthResponse.class);
+        executorToken = "Bearer " + executorAuth.getToken();
+        executorId = userService.findDTOByEmail("executor@test.com").getId();
+
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle("Test Task");
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+        taskDTO.setExecutorId(executorId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        createdTaskId = restTemplate.postForEntity("/api/tasks", new HttpEntity<>(taskDTO, headers), TaskDTO.class)
+                .getBody().getId();
+    }
+
+    @Test
+    void subscribe_StatusChangedByAdmin_ShouldPushEventToExecutor() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/events"))
+                .header("Authorization", executorToken)
+                .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE)
+                .build();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(() -> response.body().forEach(lines::add));
+        reader.setDaemon(true);
+        reader.start();
+        awaitTrue(() -> taskEventBroadcaster.subscriberCount(executorId) == 1);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        restTemplate.exchange("/api/tasks/" + createdTaskId + "/status", HttpMethod.PUT,
+                new HttpEntity<>(new StatusUpdateRequest("в работе"), headers), TaskDTO.class);
+
+        String data = null;
+        while (data == null) {
+            String line = lines.poll(10, TimeUnit.SECONDS);
+            assertThat(line).as("событие не получено").isNotNull();
+            if (line.startsWith("data:")) {
+                data = line;
+            }
+        }
+        assertThat(data).contains("\"type\":\"STATUS_CHANGED\"", "\"taskId\":" + createdTaskId, "\"status\":\"в работе\"");
+        assertThat(data).doesNotContain("recipientIds");
+    }
+
+    @Test
+    void onTaskChange_SlowSubscriber_ShouldBeDroppedWithoutBlockingOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter slowEmitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                // Клиент не читает: запись блокируется
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        SseEmitter fastEmitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                received.add(builder);
+            }
+        };
+        taskEventBroadcaster.register(1001L, slowEmitter);
+        taskEventBroadcaster.register(1002L, fastEmitter);
+
+        try {
+            // Быстрый подписчик успевает получить каждое событие до публикации следующего
+            for (int i = 1; i <= 5; i++) {
+                taskEventBroadcaster.onTaskChange(new TaskChangeEvent(
+                        TaskChangeEvent.Type.STATUS_CHANGED, 1L, "в работе", Set.of(1001L, 1002L)));
+                int expected = i;
+                awaitTrue(() -> received.size() >= expected);
+            }
+
+            // У медленного подписчика первое событие заблокировано в записи, два ждут в очереди, следующее переполняет ее
+            assertThat(taskEventBroadcaster.subscriberCount(1001L)).isZero();
+            assertThat(taskEventBroadcaster.subscriberCount(1002L)).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("условие не выполнено за 10 секунд").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
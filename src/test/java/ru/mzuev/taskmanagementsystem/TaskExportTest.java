@@ -0,0 +1,143 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.CommentRequest;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.dto.TaskExportItem;
+import ru.mzuev.taskmanagementsystem.repository.CommentRepository;
+import ru.mzuev.taskmanagementsystem.repository.TaskRepository;
+import ru.mzuev.taskmanagementsystem.service.TaskExportService;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class TaskExportTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String adminToken;
+    private Long adminId;
+    private Long firstTaskId;
+    private Long secondTaskId;
+    private Long thirdTaskId;
+
+    @BeforeEach
+    void setUp() {
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        adminId = userService.findDTOByEmail("admin@test.com").getId();
+
+        firstTaskId = createTask("First, with comma");
+        secondTaskId = createTask("Second \"quoted\"");
+        thirdTaskId = createTask("Third");
+        createComment(firstTaskId, "Comment 1");
+        createComment(firstTaskId, "Comment 2");
+        createComment(thirdTaskId, "Comment 3");
+    }
+
+    @Test
+    void exportNdjson_WithComments_ShouldAttachCommentsToTheirTasks() {
+        ResponseEntity<String> response = export("/api/tasks/export/ndjson?comments=true");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        List<String> lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).contains("\"id\":" + firstTaskId, "Comment 1", "Comment 2");
+        assertThat(lines.get(1)).contains("\"id\":" + secondTaskId, "\"comments\":[]");
+        assertThat(lines.get(2)).contains("\"id\":" + thirdTaskId, "Comment 3");
+    }
+
+    @Test
+    void exportCsv_WithComments_ShouldWriteOneRowPerComment() {
+        ResponseEntity<String> response = export("/api/tasks/export/csv?comments=true&authorId=" + adminId);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentDisposition().getFilename()).isEqualTo("tasks.csv");
+        List<String> lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize(5);
+        assertThat(lines.get(0)).startsWith("id,title,description,status,priority,authorId,executorId,commentId");
+        assertThat(lines.get(1)).startsWith(firstTaskId + ",\"First, with comma\",").contains("Comment 1");
+        assertThat(lines.get(2)).startsWith(firstTaskId + ",").contains("Comment 2");
+        assertThat(lines.get(3)).startsWith(secondTaskId + ",\"Second \"\"quoted\"\"\",").endsWith(",,,");
+        assertThat(lines.get(4)).startsWith(thirdTaskId + ",").contains("Comment 3");
+    }
+
+    @Test
+    void exportTasks_CommentOfTaskMissingFromTaskStream_ShouldNotDetachLaterComments() {
+        createComment(secondTaskId, "Comment of hidden task");
+        // Задача появилась в потоке комментариев, но не в потоке задач (другой снимок данных у второго запроса)
+        TaskRepository tasksWithoutSecond = mock(TaskRepository.class);
+        when(tasksWithoutSecond.streamDTOByFilter(null, null)).thenAnswer(invocation -> taskRepository
+                .streamDTOByFilter(null, null)
+                .filter(task -> !task.getId().equals(secondTaskId)));
+        TaskExportService exportService = new TaskExportService(tasksWithoutSecond, commentRepository, userService);
+
+        List<TaskExportItem> items = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> exportService.exportTasks(null, null, true, items::add));
+
+        assertThat(items).extracting(item -> item.getTask().getId()).containsExactly(firstTaskId, thirdTaskId);
+        assertThat(items.get(0).getComments()).extracting("content").containsExactly("Comment 1", "Comment 2");
+        assertThat(items.get(1).getComments()).extracting("content").containsExactly("Comment 3");
+    }
+
+    @Test
+    void export_UnknownAuthor_ShouldReturnNotFound() {
+        ResponseEntity<String> response = export("/api/tasks/export/csv?authorId=999999");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private ResponseEntity<String> export(String url) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private Long createTask(String title) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle(title);
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        return restTemplate.postForEntity("/api/tasks", new HttpEntity<>(taskDTO, headers), TaskDTO.class).getBody().getId();
+    }
+
+    private void createComment(Long taskId, String content) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        restTemplate.postForEntity("/api/comments", new HttpEntity<>(new CommentRequest(content, taskId), headers), String.class);
+    }
+}
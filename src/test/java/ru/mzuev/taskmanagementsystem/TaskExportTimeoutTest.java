@@ -0,0 +1,78 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.ResourceAccessException;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "tasks.export.timeout=300ms")
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class TaskExportTimeoutTest {
+
+    // Выгрузка такого объема заведомо дольше tasks.export.timeout и успевает начать отправку ответа
+    private static final int TASK_COUNT = 200_000;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        Long adminId = userService.findDTOByEmail("admin@test.com").getId();
+
+        jdbcTemplate.update("insert into tasks (title, status, priority, author_id) "
+                + "select 'Export task ' || x, 'в очереди', 'низкий', ? from system_range(1, ?)", adminId, TASK_COUNT);
+    }
+
+    @Test
+    void exportCsv_Timeout_ShouldAbortConnectionInsteadOfTruncatingFile() {
+        assertThatThrownBy(() -> readExport("/api/tasks/export/csv"))
+                .isInstanceOf(ResourceAccessException.class);
+    }
+
+    @Test
+    void exportNdjson_Timeout_ShouldAbortConnectionInsteadOfTruncatingFile() {
+        assertThatThrownBy(() -> readExport("/api/tasks/export/ndjson"))
+                .isInstanceOf(ResourceAccessException.class);
+    }
+
+    /**
+     * Читает выгрузку целиком; обрыв соединения приводит к ResourceAccessException.
+     */
+    private long readExport(String url) {
+        return restTemplate.execute(url, HttpMethod.GET,
+                request -> request.getHeaders().set("Authorization", adminToken),
+                response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    try (InputStream body = response.getBody()) {
+                        return body.transferTo(OutputStream.nullOutputStream());
+                    }
+                });
+    }
+}
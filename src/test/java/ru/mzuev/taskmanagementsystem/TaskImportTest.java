@@ -0,0 +1,156 @@
+package ru.mzuev.taskmanagementsystem;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.dto.TaskImportResult;
+import ru.mzuev.taskmanagementsystem.repository.TaskRepository;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class TaskImportTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String adminToken;
+    private Long adminId;
+
+    @BeforeEach
+    void setUp() {
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        adminId = userService.findDTOByEmail("admin@test.com").getId();
+    }
+
+    @Test
+    void importTasks_JsonArray_ShouldInsertInBatches() {
+        List<TaskDTO> tasks = IntStream.rangeClosed(1, 120)
+                .mapToObj(i -> task("Imported " + i, adminId))
+                .collect(Collectors.toList());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<TaskImportResult> response = importTasks(tasks, MediaType.APPLICATION_JSON);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getCreated()).isEqualTo(120);
+        assertThat(response.getBody().getFailed()).isZero();
+        assertThat(taskRepository.count()).isEqualTo(120);
+        // Поиск пользователей и задач, три блока идентификаторов и три пакета INSERT вместо 120 отдельных запросов
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    void importTasks_InvalidRows_ShouldReportErrorsAndImportTheRest() {
+        List<TaskDTO> tasks = new ArrayList<>();
+        tasks.add(task("Valid Task", adminId));
+        tasks.add(task("", adminId));
+        tasks.add(task("Unknown Author", 999_999L));
+
+        ResponseEntity<TaskImportResult> response = importTasks(tasks, MediaType.APPLICATION_JSON);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getCreated()).isEqualTo(1);
+        assertThat(response.getBody().getFailed()).isEqualTo(2);
+        assertThat(response.getBody().getErrors())
+                .extracting(TaskImportResult.RowError::getRow)
+                .containsExactlyInAnyOrder(2, 3);
+        assertThat(taskRepository.findByTitleIn(List.of("Valid Task"))).hasSize(1);
+    }
+
+    @Test
+    void importTasks_NdjsonWithExistingTitle_ShouldUpdateTask() {
+        importTasks(List.of(task("Existing Task", adminId)), MediaType.APPLICATION_JSON);
+
+        String body = "{\"title\":\"Existing Task\",\"status\":\"в работе\",\"priority\":\"низкий\",\"authorId\":" + adminId + "}\n"
+                + "{\"title\":\"New Task\",\"status\":\"в очереди\",\"priority\":\"средний\",\"authorId\":" + adminId + "}\n";
+        ResponseEntity<TaskImportResult> response = importTasks(body, MediaType.APPLICATION_NDJSON);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getCreated()).isEqualTo(1);
+        assertThat(response.getBody().getUpdated()).isEqualTo(1);
+        assertThat(taskRepository.findByTitleIn(List.of("Existing Task")))
+                .singleElement()
+                .satisfies(task -> assertThat(task.getStatus()).isEqualTo("в работе"));
+    }
+
+    @Test
+    void importTasks_RowViolatingOtherConstraint_ShouldNotBeReportedAsDuplicate() {
+        // Описание проходит валидацию DTO, но не помещается в столбец: порция откатывается и повторяется по строкам
+        TaskDTO tooLong = task("Too Long", adminId);
+        tooLong.setDescription("x".repeat(300));
+        List<TaskDTO> tasks = List.of(task("First Task", adminId), tooLong, task("Last Task", adminId));
+
+        ResponseEntity<TaskImportResult> response = importTasks(tasks, MediaType.APPLICATION_JSON);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getCreated()).isEqualTo(2);
+        assertThat(response.getBody().getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getMessage()).isEqualTo("Нарушено ограничение целостности данных");
+        });
+    }
+
+    @Test
+    void importTasks_RowWithWrongValueType_ShouldSkipOnlyThatRow() {
+        String body = "{\"title\":\"First Task\",\"status\":\"в очереди\",\"priority\":\"низкий\",\"authorId\":" + adminId + "}\n"
+                + "{\"title\":\"Bad Author\",\"status\":\"в очереди\",\"priority\":{},\"authorId\":\"abc\"}\n"
+                + "{\"title\":\"Last Task\",\"status\":\"в очереди\",\"priority\":\"низкий\",\"authorId\":" + adminId + "}\n";
+
+        ResponseEntity<TaskImportResult> response = importTasks(body, MediaType.APPLICATION_NDJSON);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getCreated()).isEqualTo(2);
+        assertThat(response.getBody().getFailed()).isEqualTo(1);
+        assertThat(response.getBody().getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getMessage()).startsWith("priority: некорректное значение");
+        });
+        assertThat(taskRepository.findByTitleIn(List.of("First Task", "Last Task"))).hasSize(2);
+    }
+
+    private TaskDTO task(String title, Long authorId) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle(title);
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(authorId);
+        return taskDTO;
+    }
+
+    private ResponseEntity<TaskImportResult> importTasks(Object body, MediaType contentType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        headers.setContentType(contentType);
+        return restTemplate.exchange("/api/tasks/bulk", HttpMethod.POST, new HttpEntity<>(body, headers), TaskImportResult.class);
+    }
+}
@@ -0,0 +1,118 @@
+package ru.mzuev.taskmanagementsystem;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.model.Task;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class TaskQueryCountTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String adminToken;
+    private String executorToken;
+    private Long executorId;
+    private Long createdTaskId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Регистрация и аутентификация админа
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        Long adminId = userService.findDTOByEmail("admin@test.com").getId();
+
+        // Регистрация и аутентификация исполнителя
+        AuthRequest executorRegisterRequest = new AuthRequest("executor@test.com", "execPass");
+        restTemplate.postForEntity("/api/auth/register", executorRegisterRequest, String.class);
+        AuthResponse executorAuth = restTemplate.postForObject("/api/auth/login", executorRegisterRequest, AuthResponse.class);
+        executorToken = "Bearer " + executorAuth.getToken();
+        executorId = userService.findDTOByEmail("executor@test.com").getId();
+
+        // Создаем тестовую задачу
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle("Test Task");
+        taskDTO.setStatus("в очереди");
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+        taskDTO.setExecutorId(executorId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        ResponseEntity<TaskDTO> response = restTemplate.postForEntity("/api/tasks", new HttpEntity<>(taskDTO, headers), TaskDTO.class);
+        createdTaskId = response.getBody().getId();
+
+        // Прогревающий запрос, чтобы пользователь исполнителя попал в кеш
+        getTaskAsExecutor();
+    }
+
+    @Test
+    void getTaskById_Executor_ShouldLoadTaskOnce() {
+        statistics.clear();
+
+        ResponseEntity<TaskDTO> response = getTaskAsExecutor();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        // Проверка прав - один запрос на существование, загрузка задачи - еще один (или ни одного при попадании в кеш второго уровня)
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        assertThat(statistics.getEntityStatistics(Task.class.getName()).getLoadCount()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void getTasksByExecutor_NonEmptyPage_ShouldRunSingleQuery() {
+        getTasksByExecutorAsAdmin(executorId);
+        statistics.clear();
+
+        ResponseEntity<String> response = getTasksByExecutorAsAdmin(executorId);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        // Непустая неполная первая страница: ни проверки существования исполнителя, ни COUNT-запроса
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getTasksByExecutor_UnknownExecutor_ShouldReturnNotFound() {
+        ResponseEntity<String> response = getTasksByExecutorAsAdmin(999_999L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private ResponseEntity<String> getTasksByExecutorAsAdmin(Long executorId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        return restTemplate.exchange("/api/tasks/by-executor?executorId=" + executorId, HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+    }
+
+    private ResponseEntity<TaskDTO> getTaskAsExecutor() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", executorToken);
+        return restTemplate.exchange("/api/tasks/" + createdTaskId, HttpMethod.GET, new HttpEntity<>(headers), TaskDTO.class);
+    }
+}
@@ -0,0 +1,132 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.mzuev.taskmanagementsystem.dto.AuthRequest;
+import ru.mzuev.taskmanagementsystem.dto.AuthResponse;
+import ru.mzuev.taskmanagementsystem.dto.CommentRequest;
+import ru.mzuev.taskmanagementsystem.dto.CursorPage;
+import ru.mzuev.taskmanagementsystem.dto.TaskDTO;
+import ru.mzuev.taskmanagementsystem.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class TaskSearchTest {
+
+    private static final ParameterizedTypeReference<CursorPage<TaskDTO>> TASK_PAGE = new ParameterizedTypeReference<>() {
+    };
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserService userService;
+
+    private String adminToken;
+    private String executorToken;
+    private Long adminId;
+    private Long executorId;
+    private Long titleTaskId;
+    private Long descriptionTaskId;
+    private Long commentTaskId;
+
+    @BeforeEach
+    void setUp() {
+        AuthRequest adminRegisterRequest = new AuthRequest("admin@test.com", "adminPass");
+        restTemplate.postForEntity("/api/auth/register", adminRegisterRequest, String.class);
+        AuthResponse adminAuth = restTemplate.postForObject("/api/auth/login", adminRegisterRequest, AuthResponse.class);
+        adminToken = "Bearer " + adminAuth.getToken();
+        adminId = userService.findDTOByEmail("admin@test.com").getId();
+
+        AuthRequest executorRegisterRequest = new AuthRequest("executor@test.com", "execPass");
+        restTemplate.postForEntity("/api/auth/register", executorRegisterRequest, String.class);
+        AuthResponse executorAuth = restTemplate.postForObject("/api/auth/login", executorRegisterRequest, AuthResponse.class);
+        executorToken = "Bearer " + executorAuth.getToken();
+        executorId = userService.findDTOByEmail("executor@test.com").getId();
+
+        titleTaskId = createTask("Квартальный отчет", "Собрать цифры", "в очереди", executorId);
+        descriptionTaskId = createTask("Продажи", "Подготовить отчетность для клиента", "в работе", executorId);
+        commentTaskId = createTask("Совещание", "Обсудить планы", "в очереди", null);
+        createTask("Релиз", "Выпустить версию", "в очереди", executorId);
+        createComment(commentTaskId, "После совещания нужен отчет");
+    }
+
+    @Test
+    void search_ShouldRankTitleAboveDescriptionAndComments() {
+        ResponseEntity<CursorPage<TaskDTO>> first = search(adminToken, "/api/tasks/search?query=ОТЧ&size=2");
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody().getContent()).extracting(TaskDTO::getId).containsExactly(titleTaskId, descriptionTaskId);
+        assertThat(first.getBody().isHasNext()).isTrue();
+
+        ResponseEntity<CursorPage<TaskDTO>> second = search(adminToken,
+                "/api/tasks/search?query=ОТЧ&size=2&cursor=" + first.getBody().getNextCursor());
+        assertThat(second.getBody().getContent()).extracting(TaskDTO::getId).containsExactly(commentTaskId);
+        assertThat(second.getBody().isHasNext()).isFalse();
+
+        // Все слова запроса должны встречаться в задаче, хотя бы в разных полях
+        ResponseEntity<CursorPage<TaskDTO>> allTerms = search(adminToken, "/api/tasks/search?query=совещание, отчет");
+        assertThat(allTerms.getBody().getContent()).extracting(TaskDTO::getId).containsExactly(commentTaskId);
+    }
+
+    @Test
+    void search_NonAdmin_ShouldFindOnlyOwnTasksMatchingFilters() {
+        ResponseEntity<CursorPage<TaskDTO>> own = search(executorToken, "/api/tasks/search?query=отчет");
+        assertThat(own.getBody().getContent()).extracting(TaskDTO::getId).containsExactly(titleTaskId, descriptionTaskId);
+
+        ResponseEntity<CursorPage<TaskDTO>> filtered = search(executorToken, "/api/tasks/search?query=отчет&status=в работе");
+        assertThat(filtered.getBody().getContent()).extracting(TaskDTO::getId).containsExactly(descriptionTaskId);
+
+        ResponseEntity<CursorPage<TaskDTO>> byExecutor = search(adminToken,
+                "/api/tasks/search?query=отчет&priority=высокий&executorId=" + adminId);
+        assertThat(byExecutor.getBody().getContent()).isEmpty();
+    }
+
+    @Test
+    void search_InvalidRequest_ShouldReturnBadRequest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+
+        ResponseEntity<String> blank = restTemplate.exchange("/api/tasks/search?query= ",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(blank.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        ResponseEntity<String> invalidCursor = restTemplate.exchange("/api/tasks/search?query=отчет&cursor=not-a-cursor",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(invalidCursor.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private ResponseEntity<CursorPage<TaskDTO>> search(String token, String url) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", token);
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), TASK_PAGE);
+    }
+
+    private Long createTask(String title, String description, String status, Long executor) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle(title);
+        taskDTO.setDescription(description);
+        taskDTO.setStatus(status);
+        taskDTO.setPriority("высокий");
+        taskDTO.setAuthorId(adminId);
+        taskDTO.setExecutorId(executor);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        return restTemplate.postForEntity("/api/tasks", new HttpEntity<>(taskDTO, headers), TaskDTO.class).getBody().getId();
+    }
+
+    private void createComment(Long taskId, String content) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", adminToken);
+        restTemplate.postForEntity("/api/comments", new HttpEntity<>(new CommentRequest(content, taskId), headers), String.class);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.mzuev.taskmanagementsystem;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Нагрузочный тест с виртуальными потоками Tomcat. Выполняется только на Java 21 и новее.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"spring.threads.virtual.enabled=true", "sql.trace.sample-rate=0"})
+@ActiveProfiles("test")
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class VirtualThreadLoadTest extends AbstractWebTierLoadTest {
+
+    @Override
+    protected String mode() {
+        return "virtual-threads";
+    }
+}
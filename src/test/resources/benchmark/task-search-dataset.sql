@@ -0,0 +1,57 @@
+-- Набор данных для замера полнотекстового поиска задач (GET /api/tasks/search) на PostgreSQL.
+-- Создает :tasks задач (по умолчанию 1 000 000) и по 3 комментария на задачу поверх схемы Flyway (V1-V6).
+-- Тексты состоят из 60 частых слов (каждое встречается примерно в трети задач) и редких слов вида
+-- "модульN", N от 10000 до 29999 (каждое примерно в 300 задачах), чтобы можно было проверять запросы разной избирательности.
+-- Запуск на пустой БД после старта приложения (миграции уже применены):
+--   psql -h localhost -p 5433 -U postgres -d taskdb -v tasks=1000000 -f task-search-dataset.sql
+
+\if :{?tasks}
+\else
+\set tasks 1000000
+\endif
+
+create or replace function pg_temp.random_text(word_count int) returns text
+language sql volatile as $$
+    select string_agg(case when random() < 0.8
+                          then words[1 + floor(random() * array_length(words, 1))::int]
+                          else 'модуль' || (10000 + floor(random() * 20000)::int) end, ' ')
+    from (select array['отчет', 'клиент', 'договор', 'оплата', 'счет', 'сервер', 'ошибка', 'релиз', 'тест', 'дизайн',
+                       'макет', 'встреча', 'бюджет', 'план', 'проект', 'документ', 'интеграция', 'миграция', 'база', 'данные',
+                       'сборка', 'доступ', 'пароль', 'настройка', 'мониторинг', 'логирование', 'запрос', 'ответ', 'форма', 'страница',
+                       'поиск', 'фильтр', 'экспорт', 'импорт', 'уведомление', 'письмо', 'телефон', 'склад', 'поставка', 'заказ',
+                       'товар', 'цена', 'скидка', 'акция', 'курьер', 'доставка', 'возврат', 'претензия', 'аудит', 'проверка',
+                       'обновление', 'исправление', 'оптимизация', 'производительность', 'безопасность', 'сертификат', 'резервный', 'копия', 'сеть', 'кластер']
+          ) vocabulary(words),
+         generate_series(1, word_count)
+$$;
+
+-- Триггеры отключены на время загрузки: вектор поиска пересчитывается одним запросом в конце
+set session_replication_role = replica;
+drop index if exists idx_tasks_search_vector;
+
+insert into users (email, password, role)
+select 'bench' || g || '@test.com', '$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchmarkb', 'ROLE_USER'
+from generate_series(1, 100) g;
+
+insert into tasks (title, description, status, priority, author_id, executor_id)
+select pg_temp.random_text(3) || ' #' || g,
+       pg_temp.random_text(8),
+       (array['в очереди', 'в работе', 'на проверке', 'завершена'])[1 + g % 4],
+       (array['низкий', 'средний', 'высокий'])[1 + g % 3],
+       (select min(id) from users where email like 'bench%') + g % 100,
+       (select min(id) from users where email like 'bench%') + (g * 7) % 100
+from generate_series(1, :tasks) g;
+
+insert into comments (content, created_at, task_id, user_id)
+select pg_temp.random_text(6), now() - (n || ' minutes')::interval, t.id, t.executor_id
+from tasks t, generate_series(1, 3) n;
+
+update tasks t set comments_vector = comment_text_vector(c.content)
+from (select task_id, string_agg(content, ' ') as content from comments group by task_id) c
+where t.id = c.task_id;
+update tasks set search_vector = task_text_vector(title, description) || comments_vector;
+set session_replication_role = origin;
+
+create index idx_tasks_search_vector on tasks using gin (search_vector);
+vacuum analyze tasks;
+vacuum analyze comments;
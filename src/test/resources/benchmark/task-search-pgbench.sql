@@ -0,0 +1,27 @@
+-- Сценарий pgbench для замера задержки поиска задач на наборе task-search-dataset.sql.
+-- Запрос совпадает с запросом TaskSearchRepository (первый срез, 20 задач). Класс запроса задается переменной kind:
+--   1 - одно редкое слово (около 300 совпадений), 2 - редкое и частое слово,
+--   3 - два частых слова (около 100 000 совпадений), 4 - два частых слова и фильтры по статусу и приоритету.
+-- Запуск (для каждого класса отдельно):
+--   pgbench -h localhost -p 5433 -U postgres -n -c 8 -j 4 -T 60 -D kind=1 -l --log-prefix=search1 -f task-search-pgbench.sql taskdb
+-- p95 по журналу (задержка в микросекундах, третий столбец):
+--   cat search1.* | awk '{print $3}' | sort -n | awk '{a[NR]=$1} END {print a[int(NR*0.95)]}'
+
+\set rare random(10000, 29999)
+\set common1 random(1, 60)
+\set common2 random(1, 60)
+
+select * from (
+    select t.id, t.title, t.description, t.status, t.priority, t.author_id, t.executor_id,
+           ts_rank(t.search_vector, query) as rank
+    from tasks t,
+         to_tsquery('russian', case :kind
+             when 1 then 'модуль' || :rare || ':*'
+             when 2 then 'модуль' || :rare || ':* & ' || (array['отчет', 'клиент', 'договор', 'оплата', 'сервер', 'ошибка'])[1 + :common1 % 6] || ':*'
+             else (array['отчет', 'клиент', 'договор', 'оплата', 'сервер', 'ошибка'])[1 + :common1 % 6] || ':* & '
+                  || (array['релиз', 'тест', 'дизайн', 'макет', 'встреча', 'бюджет'])[1 + :common2 % 6] || ':*' end) query
+    where t.search_vector @@ query
+      and (:kind <> 4 or (t.status = 'в работе' and t.priority = 'высокий'))
+) r
+order by r.rank desc, r.id
+limit 21;